@@ -0,0 +1,53 @@
+package com.example.cursoudemy.libraryapi.benchmark;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import com.example.cursoudemy.libraryapi.models.Autor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do mapeamento entre DTO e entidade feito pelo AutorController:
+ * - dtoParaEntidade: AutorDTO.mapearParaAutor(), usado em POST e PUT /autores;
+ * - entidadeParaDto: new AutorDTO(id, nome, dataNascimento, nacionalidade), como nas respostas de GET /autores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutorDTOMapeamentoBenchmark {
+
+    private AutorDTO dto;
+
+    private Autor autor;
+
+    @Setup
+    public void configurar() {
+        dto = new AutorDTO(UUID.randomUUID(), "Machado de Assis", LocalDate.of(1839, 6, 21), "Brasileiro");
+        autor = dto.mapearParaAutor();
+        autor.setId(dto.id());
+    }
+
+    @Benchmark
+    public Autor dtoParaEntidade() {
+        return dto.mapearParaAutor();
+    }
+
+    @Benchmark
+    public AutorDTO entidadeParaDto() {
+        return new AutorDTO(autor.getId(), autor.getNome(), autor.getDataNascimento(), autor.getNacionalidade());
+    }
+}
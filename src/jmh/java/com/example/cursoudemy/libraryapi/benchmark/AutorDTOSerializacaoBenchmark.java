@@ -0,0 +1,63 @@
+package com.example.cursoudemy.libraryapi.benchmark;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da serializacao Jackson de List<AutorDTO>, o corpo das respostas de GET /autores, de 10 a 100 mil autores.
+ * O ObjectMapper e montado pelo Jackson2ObjectMapperBuilder, como o do Spring Boot (datas ISO com o JavaTimeModule),
+ * e o JSON e escrito em um OutputStream descartavel, para medir so a serializacao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutorDTOSerializacaoBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    private int quantidade;
+
+    private ObjectWriter writer;
+
+    private List<AutorDTO> autores;
+
+    private final OutputStream descarte = OutputStream.nullOutputStream();
+
+    @Setup
+    public void configurar() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, AutorDTO.class));
+        autores = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            autores.add(new AutorDTO(UUID.randomUUID(), "Autor " + i, LocalDate.of(1900, 1, 1).plusDays(i % 30_000), "Brasileiro"));
+        }
+    }
+
+    @Benchmark
+    public void serializarLista() throws IOException {
+        writer.writeValue(descarte, autores);
+    }
+}
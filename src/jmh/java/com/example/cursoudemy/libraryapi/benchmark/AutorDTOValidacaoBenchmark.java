@@ -0,0 +1,66 @@
+package com.example.cursoudemy.libraryapi.benchmark;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do @Valid AutorDTO (Bean Validation com Hibernate Validator), o mesmo executado em POST e PUT /autores.
+ * - valido: todas as restricoes passam (caso comum);
+ * - invalido: todas as restricoes falham e cada mensagem e interpolada (cliente enviando dados ruins).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutorDTOValidacaoBenchmark {
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private final AutorDTO autorValido = new AutorDTO(null, "Machado de Assis", LocalDate.of(1839, 6, 21), "Brasileiro");
+
+    private final AutorDTO autorInvalido = new AutorDTO(null, "", LocalDate.now().plusDays(1), "B"); // Nome vazio, data futura, nacionalidade curta
+
+    @Setup
+    public void configurar() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validator.validate(autorValido); // Carrega os metadados de AutorDTO fora da medicao
+    }
+
+    @TearDown
+    public void finalizar() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<AutorDTO>> valido() {
+        return validator.validate(autorValido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<AutorDTO>> invalido() {
+        return validator.validate(autorInvalido);
+    }
+}
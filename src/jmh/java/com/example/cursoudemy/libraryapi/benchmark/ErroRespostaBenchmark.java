@@ -0,0 +1,54 @@
+package com.example.cursoudemy.libraryapi.benchmark;
+
+import com.example.cursoudemy.libraryapi.controller.AutorController;
+import com.example.cursoudemy.libraryapi.controller.commom.GlobalExceptionHandler;
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.ErroResposta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de montar o ErroResposta (422) no GlobalExceptionHandler a partir de uma MethodArgumentNotValidException
+ * com os tres erros de campo possiveis de AutorDTO. A validacao em si e medida no AutorDTOValidacaoBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErroRespostaBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private MethodArgumentNotValidException excecao;
+
+    @Setup
+    public void configurar() throws NoSuchMethodException {
+        BeanPropertyBindingResult resultado = new BeanPropertyBindingResult(null, "autorDTO");
+        resultado.addError(new FieldError("autorDTO", "nome", "O nome do autor nao pode ser vazio"));
+        resultado.addError(new FieldError("autorDTO", "dataNascimento", "A data de nascimento do autor deve ser uma data passada"));
+        resultado.addError(new FieldError("autorDTO", "nacionalidade", "A nacionalidade do autor deve conter entre 2 e 50 caracteres"));
+        MethodParameter parametro = new MethodParameter(AutorController.class.getMethod("salvar", AutorDTO.class), 0); // Parametro @Valid do POST
+        excecao = new MethodArgumentNotValidException(parametro, resultado);
+    }
+
+    @Benchmark
+    public ErroResposta montarErroResposta() {
+        return handler.handleMethodArgumentNotValidException(excecao);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.cursoudemy.libraryapi.benchmark;
+
+import com.example.cursoudemy.libraryapi.Application;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compara os dois modos de execucao de requisicoes com alta concorrencia (spring.threads.virtual.enabled):
+ * - plataforma: o pool padrao do Tomcat (200 threads), sem o LimitadorConexoes;
+ * - virtual: uma thread virtual por requisicao, com o LimitadorConexoes no gerenciador de transacoes.
+ * Cada trial inicia a aplicacao de verdade (Tomcat em porta aleatoria, Hikari com 10 conexoes e o PostgreSQL do
+ * application.yml, que precisa estar no ar) e dispara as requisicoes por HTTP contra GET /autores, uma pagina por
+ * keyset que usa uma conexao do pool. O tempo medido e o de atender todas as requisicoes; os contadores mostram
+ * quantas foram 200, quantas 503 (limitador ou pool esgotado) e quantas falharam na conexao.
+ * Cliente e servidor dividem a mesma JVM e a mesma CPU, entao os numeros servem para comparar os modos entre si.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ThreadsVirtuaisBenchmark {
+
+    @Param({"plataforma", "virtual"})
+    private String modo;
+
+    @Param({"10000"})
+    private int requisicoes;
+
+    @Param({"1000"})
+    private int concorrencia; // Requisicoes em andamento ao mesmo tempo, bem acima das 200 threads e das 10 conexoes
+
+    private ConfigurableApplicationContext aplicacao;
+
+    private HttpClient cliente;
+
+    private ExecutorService clientes; // Threads do lado do cliente, virtuais nos dois modos para nao limitar a carga
+
+    private URI endereco;
+
+    @Setup(Level.Trial)
+    public void iniciarAplicacao() {
+        aplicacao = new SpringApplicationBuilder(Application.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + modo.equals("virtual"), // Liga tambem libraryapi.limitador
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn")
+                .run();
+        int porta = aplicacao.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        endereco = URI.create("http://localhost:" + porta + "/autores?tamanho=20");
+        clientes = Executors.newVirtualThreadPerTaskExecutor();
+        cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientes)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrarAplicacao() {
+        clientes.shutdownNow();
+        aplicacao.close();
+    }
+
+    @Benchmark
+    public void atenderRequisicoes(Respostas respostas) throws InterruptedException {
+        Semaphore emAndamento = new Semaphore(concorrencia);
+        HttpRequest requisicao = HttpRequest.newBuilder(endereco).GET().build();
+        for (int i = 0; i < requisicoes; i++) {
+            emAndamento.acquire();
+            clientes.execute(() -> {
+                try {
+                    int status = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    (status == 200 ? respostas.ok : status == 503 ? respostas.indisponivel : respostas.outras).incrementAndGet();
+                } catch (IOException e) { // Conexao recusada ou encerrada pelo servidor sobrecarregado
+                    respostas.outras.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    emAndamento.release();
+                }
+            });
+        }
+        emAndamento.acquire(concorrencia); // Espera as ultimas terminarem
+    }
+
+    // Contadores publicados pelo JMH ao lado do tempo de cada modo
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Respostas {
+
+        private final AtomicLong ok = new AtomicLong();
+
+        private final AtomicLong indisponivel = new AtomicLong();
+
+        private final AtomicLong outras = new AtomicLong();
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            ok.set(0);
+            indisponivel.set(0);
+            outras.set(0);
+        }
+
+        public long ok() {
+            return ok.get();
+        }
+
+        public long indisponivel() {
+            return indisponivel.get();
+        }
+
+        public long outras() {
+            return outras.get();
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.example.cursoudemy.libraryapi;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing // Ativa o suporte a auditoria JPA (ex: @CreatedDate, @LastModifiedDate)
+@EnableScheduling // Ativa os metodos @Scheduled (RelayAlteracoes)
 public class Application {
 
 	public static void main(String[] args) {
@@ -0,0 +1,29 @@
+package com.example.cursoudemy.libraryapi.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+@Configuration // Indica que esta classe contém configurações do Spring
+public class CacheConfiguration {
+
+    public static final String REGIAO_AUTOR = "autor"; // Regiao do cache de segundo nivel com as entidades Autor
+    public static final String REGIAO_CONSULTAS_AUTOR = "autor-consultas"; // Regiao com os resultados das consultas de Autor
+
+    @Bean(destroyMethod = "close") // CacheManager do JCache implementado pelo Caffeine (limites e expiracao em application.conf)
+    public CacheManager jCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()); // Escolhe o Caffeine explicitamente
+        return provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+    }
+
+    @Bean // Entrega ao Hibernate o mesmo CacheManager, para que as estatisticas do Caffeine possam ser lidas pela aplicacao
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager jCacheManager) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, jCacheManager);
+    }
+}
@@ -2,11 +2,15 @@ package com.example.cursoudemy.libraryapi.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 @Configuration // Indica que esta classe contém configurações do Spring
 public class DatabaseConfiguration {
@@ -30,21 +34,38 @@ public class DatabaseConfiguration {
         return ds; // Retorna o DataSource configurado
     }
 
-    //@Bean // Define um bean do tipo DataSource usando HikariCP (pool de conexões), que é o mais utilizado em aplicações Spring e o padrão do Spring Boot
-    public DataSource hikariDataSource() {
+    @Value("${libraryapi.pool.tamanho-maximo:10}") // Máximo de conexões no pool (pode ser alterado em execução pelo RedimensionamentoPoolEndpoint, via JMX)
+    int tamanhoMaximoPool;
+    @Value("${libraryapi.pool.minimo-ocioso:2}") // Mínimo de conexões ociosas mantidas abertas
+    int minimoOcioso;
+    @Value("${libraryapi.pool.connection-timeout:5s}") // Tempo máximo de espera por uma conexão livre
+    Duration connectionTimeout;
+    @Value("${libraryapi.pool.idle-timeout:10m}") // Tempo até fechar uma conexão ociosa acima do mínimo
+    Duration idleTimeout;
+    @Value("${libraryapi.pool.max-lifetime:30m}") // Tempo máximo de vida de uma conexão
+    Duration maxLifetime;
+
+    @Bean // Define um bean do tipo DataSource usando HikariCP (pool de conexões), que é o mais utilizado em aplicações Spring e o padrão do Spring Boot
+    public HikariDataSource hikariDataSource(MeterRegistry meterRegistry) {
         HikariConfig config = new HikariConfig(); // Cria a configuração do HikariCP
         config.setUsername(username); // Configura o usuário
         config.setPassword(password); // Configura a senha
         config.setJdbcUrl(url); // Configura a URL do banco
         config.setDriverClassName(driver); // Configura o driver JDBC
 
-        config.setMaximumPoolSize(10); // Máximo de conexões no pool
-        config.setMinimumIdle(1); // Mínimo de conexões ociosas
-        config.setConnectionTimeout(100000); // Tempo máximo de espera por uma conexão (ms)
-        config.setMaxLifetime(600000); // Tempo máximo de vida de uma conexão (ms)
-        config.setPoolName("library-db-pool"); // Nome do pool de conexões
-        config.setConnectionTestQuery("SELECT 1"); // Query para testar conexões
+        config.setMaximumPoolSize(tamanhoMaximoPool); // Máximo de conexões no pool
+        config.setMinimumIdle(minimoOcioso); // Mínimo de conexões ociosas
+        config.setConnectionTimeout(connectionTimeout.toMillis()); // Tempo máximo de espera por uma conexão (ms); antes 100 s, agora falha rápido
+        config.setIdleTimeout(idleTimeout.toMillis()); // Tempo máximo ociosa antes de ser fechada (ms)
+        config.setMaxLifetime(maxLifetime.toMillis()); // Tempo máximo de vida de uma conexão (ms)
+        config.setPoolName("library-db-pool"); // Nome do pool de conexões (tag "pool" das métricas hikaricp.*)
+        // Sem setConnectionTestQuery("SELECT 1"): o driver do PostgreSQL é JDBC4, e o Hikari valida a conexão com
+        // Connection.isValid(), sem uma ida e volta de SELECT a cada conexão emprestada
+        config.setRegisterMbeans(true); // Expõe o pool também via JMX (o /actuator/pool usa os mesmos MXBeans)
 
+        // Métricas hikaricp.connections.active/idle/pending e os timers acquire/usage no Micrometer (lidas pelo /actuator/pool)
+        // Configurado aqui porque o construtor com HikariConfig inicia e sela o pool imediatamente
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
         return new HikariDataSource(config); // Retorna o DataSource com pool de conexões
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.example.cursoudemy.libraryapi.config;
+
+import com.example.cursoudemy.libraryapi.service.LimitadorConexoes;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+@Configuration // Indica que esta classe contém configurações do Spring
+@ConditionalOnProperty(name = "libraryapi.limitador.habilitado", havingValue = "true")
+public class LimitadorConexoesConfiguration {
+
+    @Bean // Uma permissao por conexao do pool do Hikari (maximumPoolSize)
+    public LimitadorConexoes limitadorConexoes(DataSource dataSource,
+                                               @Value("${libraryapi.limitador.espera-maxima:2s}") Duration esperaMaxima) throws SQLException {
+        int limite = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        return new LimitadorConexoes(limite, esperaMaxima);
+    }
+
+    // Substitui o JpaTransactionManager do Spring Boot (que so e criado quando nao ha outro gerenciador de transacoes).
+    // Todo @Transactional, TransactionTemplate e metodo de repositorio passa por ele, entao o limite vale para todos os
+    // servicos e nao apenas para os que fossem listados num pointcut
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         LimitadorConexoes limitadorConexoes,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizers) {
+        TransacoesLimitadas transactionManager = new TransacoesLimitadas(entityManagerFactory, limitadorConexoes);
+        customizers.ifAvailable(c -> c.customize((TransactionManager) transactionManager)); // Mesmas propriedades spring.transaction.* do padrao
+        return transactionManager;
+    }
+
+    // doBegin so e chamado quando uma transacao fisica comeca, antes de ela pegar uma conexao do pool, e
+    // doCleanupAfterCompletion quando ela termina e a conexao volta. Transacoes que apenas participam de outra nao
+    // passam por nenhum dos dois
+    static class TransacoesLimitadas extends JpaTransactionManager {
+
+        private final LimitadorConexoes limitador;
+
+        TransacoesLimitadas(EntityManagerFactory entityManagerFactory, LimitadorConexoes limitador) {
+            super(entityManagerFactory);
+            this.limitador = limitador;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            limitador.obter(); // Lanca ServicoIndisponivelException (503) sem ter ocupado conexao
+            try {
+                super.doBegin(transaction, definition);
+            } catch (RuntimeException | Error e) { // Sem transacao iniciada nao havera doCleanupAfterCompletion
+                limitador.liberar();
+                throw e;
+            }
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            try {
+                super.doCleanupAfterCompletion(transaction);
+            } finally {
+                limitador.liberar();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.cursoudemy.libraryapi.config;
+
+import com.example.cursoudemy.libraryapi.models.Autor;
+import com.example.cursoudemy.libraryapi.models.Livro;
+import com.example.cursoudemy.libraryapi.repository.AutorRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+
+/**
+ * Instrumentacao dos metodos do AutorRepository e do LivroRepository, no lugar do show-sql.
+ * - Latencia: o timer spring.data.repository.invocations do Spring Boot Actuator (tags repository e method), com
+ *   p50/p99 e maximo configurados em management.metrics.distribution (application.yml).
+ * - Linhas: o resumo libraryapi.repositorio.linhas registra quantas linhas cada metodo retornou ou alterou.
+ * - Consultas lentas: chamadas acima de libraryapi.consulta-lenta.limite sao amostradas e escritas no logger
+ *   "libraryapi.consulta-lenta" com os parametros recebidos, por uma thread separada; a requisicao nao espera o log
+ *   e, se a fila encher, as entradas excedentes sao descartadas. Chamadas que lancam excecao tambem sao registradas,
+ *   com a classe da excecao no lugar da quantidade de linhas.
+ */
+@Aspect
+@Component
+public class MetricasRepositorioAspect implements DisposableBean {
+
+    private static final Logger LOG_CONSULTA_LENTA = LoggerFactory.getLogger("libraryapi.consulta-lenta");
+
+    private static final int MAXIMO_ITENS_PARAMETRO = 10; // Colecoes grandes (IN de ids) sao resumidas no log
+
+    private final MeterRegistry meterRegistry;
+
+    private final long limiteNanos;
+
+    private final double amostragem;
+
+    private final ThreadPoolExecutor escritor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1000), // Fila limitada: sob carga o log nao consome memoria sem limite
+            tarefa -> {
+                Thread thread = new Thread(tarefa, "consulta-lenta-log");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy()); // Fila cheia: descarta a entrada em vez de bloquear a requisicao
+
+    public MetricasRepositorioAspect(MeterRegistry meterRegistry,
+                                     @Value("${libraryapi.consulta-lenta.limite:200ms}") Duration limite,
+                                     @Value("${libraryapi.consulta-lenta.amostragem:1.0}") double amostragem) {
+        this.meterRegistry = meterRegistry;
+        this.limiteNanos = limite.toNanos();
+        this.amostragem = amostragem;
+    }
+
+    @Around("target(com.example.cursoudemy.libraryapi.repository.AutorRepository)"
+            + " || target(com.example.cursoudemy.libraryapi.repository.LivroRepository)")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        long inicio = System.nanoTime();
+        Object resultado = null;
+        Throwable erro = null;
+        try {
+            resultado = joinPoint.proceed();
+            return resultado;
+        } catch (Throwable e) {
+            erro = e;
+            throw e;
+        } finally { // Comandos que falharam (timeout, deadlock, violacao) costumam ser justamente os mais lentos
+            registrar(joinPoint, System.nanoTime() - inicio, resultado, erro);
+        }
+    }
+
+    private void registrar(ProceedingJoinPoint joinPoint, long duracao, Object resultado, Throwable erro) {
+        String repositorio = joinPoint.getTarget() instanceof AutorRepository ? "AutorRepository" : "LivroRepository";
+        String metodo = joinPoint.getSignature().getName();
+        long linhas = erro == null ? contarLinhas(resultado) : -1; // Sem resultado quando a chamada falhou
+        if (linhas >= 0) {
+            DistributionSummary.builder("libraryapi.repositorio.linhas")
+                    .description("Linhas retornadas ou alteradas por metodo de repositorio")
+                    .tags("repositorio", repositorio, "metodo", metodo)
+                    .register(meterRegistry) // O registro devolve o mesmo resumo nas proximas chamadas
+                    .record(linhas);
+        }
+
+        if (duracao >= limiteNanos && ThreadLocalRandom.current().nextDouble() < amostragem) {
+            Object[] parametros = joinPoint.getArgs(); // Formatados na thread do log, fora da requisicao
+            String desfecho = erro == null ? linhas + " linhas" : "falhou com " + erro.getClass().getName();
+            escritor.execute(() -> LOG_CONSULTA_LENTA.warn("{}.{} levou {} ms, {}, parametros: {}",
+                    repositorio, metodo, TimeUnit.NANOSECONDS.toMillis(duracao), desfecho, formatar(parametros)));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        escritor.shutdown(); // Escreve o que ja esta na fila e encerra a thread
+    }
+
+    // Quantidade de linhas do resultado; -1 quando nao se aplica (void, boolean, streams ainda nao consumidos)
+    private static long contarLinhas(Object resultado) {
+        if (resultado instanceof Collection<?> colecao) {
+            return colecao.size();
+        }
+        if (resultado instanceof Slice<?> pagina) {
+            return pagina.getNumberOfElements();
+        }
+        if (resultado instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        if (resultado instanceof Integer || resultado instanceof Long) { // Linhas alteradas por um @Modifying
+            return ((Number) resultado).longValue();
+        }
+        if (resultado == null || resultado instanceof Boolean || resultado instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1; // Uma entidade ou projecao
+    }
+
+    private static String formatar(Object[] parametros) {
+        return Arrays.stream(parametros).map(MetricasRepositorioAspect::formatar).collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static String formatar(Object parametro) {
+        if (parametro instanceof Collection<?> colecao && colecao.size() > MAXIMO_ITENS_PARAMETRO) {
+            return colecao.stream().limit(MAXIMO_ITENS_PARAMETRO).map(String::valueOf)
+                    .collect(Collectors.joining(", ", "[", ", ... (" + colecao.size() + " itens)]"));
+        }
+        if (parametro instanceof Autor autor) { // Entidades pelo id: o toString poderia tocar associacoes lazy fora da sessao
+            return "Autor(" + autor.getId() + ")";
+        }
+        if (parametro instanceof Livro livro) {
+            return "Livro(" + livro.getId() + ")";
+        }
+        if (parametro instanceof Map<?, ?> mapa) {
+            return "Map(" + mapa.size() + ")";
+        }
+        return String.valueOf(parametro);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.cursoudemy.libraryapi.config;
+
+import com.example.cursoudemy.libraryapi.service.LimitadorConexoes;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Endpoint /actuator/pool: estado do pool de conexoes do Hikari.
+ * - GET: conexoes ativas, ociosas, aguardando (pending), limites atuais e os histogramas de tempo para obter uma
+ *   conexao (hikaricp.connections.acquire) e de uso de cada conexao (hikaricp.connections.usage), em milissegundos.
+ * Somente leitura: o projeto nao tem autenticacao, entao o redimensionamento fica fora do HTTP,
+ * no RedimensionamentoPoolEndpoint (somente JMX).
+ */
+@Component
+@Endpoint(id = "pool")
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class PoolConexoesEndpoint {
+
+    private final HikariDataSource dataSource;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ObjectProvider<LimitadorConexoes> limitador; // Existe somente com libraryapi.limitador.habilitado=true
+
+    @ReadOperation
+    public Map<String, Object> estado() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        HikariConfigMXBean configuracao = dataSource.getHikariConfigMXBean();
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("pool", configuracao.getPoolName());
+        estado.put("tamanhoMaximo", configuracao.getMaximumPoolSize());
+        estado.put("minimoOcioso", configuracao.getMinimumIdle());
+        estado.put("ativas", pool.getActiveConnections());
+        estado.put("ociosas", pool.getIdleConnections());
+        estado.put("total", pool.getTotalConnections());
+        estado.put("aguardando", pool.getThreadsAwaitingConnection());
+        estado.put("obterConexao", histograma("hikaricp.connections.acquire"));
+        estado.put("usoConexao", histograma("hikaricp.connections.usage"));
+        limitador.ifAvailable(l -> estado.put("limitador", Map.of(
+                "limite", l.getLimite(),
+                "emUso", l.getEmUso(),
+                "aguardando", l.getAguardando())));
+        return estado;
+    }
+
+    // Resumo de um timer do Hikari (registrado pelo Spring Boot Actuator com a tag pool=library-db-pool)
+    private Map<String, Object> histograma(String nome) {
+        Timer timer = meterRegistry.find(nome).tag("pool", dataSource.getPoolName()).timer();
+        if (timer == null) {
+            return Map.of();
+        }
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("quantidade", snapshot.count());
+        resumo.put("mediaMs", snapshot.mean(TimeUnit.MILLISECONDS));
+        resumo.put("maximoMs", snapshot.max(TimeUnit.MILLISECONDS));
+        Arrays.stream(snapshot.percentileValues()) // Percentis de management.metrics.distribution.percentiles
+                .forEach(p -> resumo.put("p" + formatarPercentil(p), p.value(TimeUnit.MILLISECONDS)));
+        return resumo;
+    }
+
+    private static String formatarPercentil(ValueAtPercentile percentil) {
+        double valor = percentil.percentile() * 100;
+        return valor == Math.rint(valor) ? String.valueOf((long) valor) : String.valueOf(valor); // 0.95 -> "95", 0.999 -> "99.9"
+    }
+}
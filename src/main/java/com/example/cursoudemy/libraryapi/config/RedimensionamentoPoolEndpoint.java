@@ -0,0 +1,55 @@
+package com.example.cursoudemy.libraryapi.config;
+
+import com.example.cursoudemy.libraryapi.service.LimitadorConexoes;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Ajuste do tamanho do pool do Hikari sem reiniciar a aplicacao, exposto somente por JMX
+ * (org.springframework.boot:type=Endpoint,name=Poolredimensionamento, ex.: pelo jconsole).
+ * Nao fica no /actuator/pool porque o projeto nao tem Spring Security: por HTTP qualquer cliente poderia reduzir
+ * o pool a uma conexao e derrubar o servico. O LimitadorConexoes (modo de threads virtuais) acompanha o novo maximo.
+ */
+@Component
+@JmxEndpoint(id = "poolredimensionamento")
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class RedimensionamentoPoolEndpoint {
+
+    private final HikariDataSource dataSource;
+
+    private final PoolConexoesEndpoint poolConexoes; // Estado devolvido apos o ajuste
+
+    private final ObjectProvider<LimitadorConexoes> limitador; // Existe somente com libraryapi.limitador.habilitado=true
+
+    @WriteOperation
+    public Map<String, Object> redimensionar(@Nullable Integer tamanhoMaximo, @Nullable Integer minimoOcioso) {
+        HikariConfigMXBean configuracao = dataSource.getHikariConfigMXBean();
+        int novoMaximo = tamanhoMaximo != null ? tamanhoMaximo : configuracao.getMaximumPoolSize();
+        int novoMinimo = minimoOcioso != null ? minimoOcioso : Math.min(configuracao.getMinimumIdle(), novoMaximo);
+        if (novoMaximo < 1 || novoMinimo < 0 || novoMinimo > novoMaximo) { // Vira 400 em vez de 500
+            throw new InvalidEndpointRequestException("Informe tamanhoMaximo >= 1 e 0 <= minimoOcioso <= tamanhoMaximo.",
+                    "Tamanho de pool invalido");
+        }
+
+        // A ordem evita um estado intermediario com minimo maior que o maximo
+        if (novoMaximo >= configuracao.getMaximumPoolSize()) {
+            configuracao.setMaximumPoolSize(novoMaximo);
+            configuracao.setMinimumIdle(novoMinimo);
+        } else {
+            configuracao.setMinimumIdle(novoMinimo);
+            configuracao.setMaximumPoolSize(novoMaximo);
+            dataSource.getHikariPoolMXBean().softEvictConnections(); // Conexoes ociosas excedentes sao fechadas; as em uso, ao serem devolvidas
+        }
+        limitador.ifAvailable(l -> l.redimensionar(novoMaximo));
+        return poolConexoes.estado();
+    }
+}
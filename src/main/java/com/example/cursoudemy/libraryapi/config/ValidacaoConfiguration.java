@@ -0,0 +1,29 @@
+package com.example.cursoudemy.libraryapi.config;
+
+import com.example.cursoudemy.libraryapi.validator.InterpoladorMensagemCache;
+import org.hibernate.validator.HibernateValidatorConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.validation.MessageInterpolatorFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+@Configuration // Indica que esta classe contém configurações do Spring
+public class ValidacaoConfiguration {
+
+    @Bean // Interpolador do Spring Boot (mensagens do MessageSource) com as mensagens ja interpoladas em cache
+    public static InterpoladorMensagemCache interpoladorMensagemCache(ApplicationContext applicationContext) {
+        return new InterpoladorMensagemCache(new MessageInterpolatorFactory(applicationContext).getObject());
+    }
+
+    @Bean // Substitui o "defaultValidator" do Spring Boot; e o validador usado pelo @Valid dos controllers
+    public static LocalValidatorFactoryBean defaultValidator(
+            InterpoladorMensagemCache interpoladorMensagemCache,
+            @Value("${libraryapi.validacao.fail-fast:false}") boolean failFast) { // Modo barato: para na primeira violacao
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.setMessageInterpolator(interpoladorMensagemCache);
+        validator.getValidationPropertyMap().put(HibernateValidatorConfiguration.FAIL_FAST, String.valueOf(failFast));
+        return validator;
+    }
+}
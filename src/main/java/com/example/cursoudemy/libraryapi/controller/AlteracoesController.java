@@ -0,0 +1,30 @@
+package com.example.cursoudemy.libraryapi.controller;
+
+import com.example.cursoudemy.libraryapi.service.alteracoes.DifusorAlteracoes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/alteracoes")
+// Tera a URL base http://localhost:8080/alteracoes
+// Feed de alteracoes de autores e livros em Server-Sent Events, para que outros servicos mantenham caches locais
+// em vez de consultar GET /autores periodicamente
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class AlteracoesController {
+
+    private final DifusorAlteracoes difusor;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter assinar(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEventoId, // Enviado pelo EventSource ao reconectar
+            @RequestParam(value = "desde", required = false) Long desde) { // Mesma funcao, para clientes que nao enviam o cabecalho
+        // Sem posicao informada o cliente recebe apenas as alteracoes a partir de agora
+        return difusor.conectar(ultimoEventoId != null ? ultimoEventoId : desde);
+    }
+}
@@ -1,18 +1,50 @@
 package com.example.cursoudemy.libraryapi.controller;
 
+import com.example.cursoudemy.libraryapi.controller.commom.CursorPaginacao;
+import com.example.cursoudemy.libraryapi.controller.commom.EtagAutor;
+import com.example.cursoudemy.libraryapi.controller.commom.PaginacaoKeyset;
+import com.example.cursoudemy.libraryapi.controller.dto.AlteracaoAutorDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.AutorComLivrosDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.AutorComLivrosCadastroDTO;
 import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
 import com.example.cursoudemy.libraryapi.controller.dto.ErroResposta;
+import com.example.cursoudemy.libraryapi.controller.dto.LivroCadastroDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.LivroResumoDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.PaginaDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.ResultadoImportacaoDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.SincronizacaoDTO;
 import com.example.cursoudemy.libraryapi.exceptions.OperacaoNaoPermitidaException;
 import com.example.cursoudemy.libraryapi.exceptions.RegistroDuplicadoException;
+import com.example.cursoudemy.libraryapi.exceptions.RegistroNaoEncontradoException;
+import com.example.cursoudemy.libraryapi.exceptions.VersaoDesatualizadaException;
 import com.example.cursoudemy.libraryapi.models.Autor;
+import com.example.cursoudemy.libraryapi.models.Livro;
+import com.example.cursoudemy.libraryapi.service.AutorComLivrosService;
+import com.example.cursoudemy.libraryapi.service.AutorExportacaoService;
+import com.example.cursoudemy.libraryapi.service.AutorRespostaCache;
+import com.example.cursoudemy.libraryapi.service.AutorImportacaoService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.example.cursoudemy.libraryapi.service.AutorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -28,6 +60,30 @@ public class AutorController {
     // Injeta o AutorService via construtor
     private final AutorService service;
 
+    // Injeta o servico de exportacao em NDJSON
+    private final AutorExportacaoService exportacaoService;
+
+    // Injeta o servico de importacao em lote
+    private final AutorImportacaoService importacaoService;
+
+    // Injeta o servico de cadastro de autor com livros em uma transacao
+    private final AutorComLivrosService autorComLivrosService;
+
+    // Respostas ja serializadas de GET /autores/{id}
+    private final AutorRespostaCache respostaCache;
+
+    // ObjectMapper configurado pelo Spring Boot, usado para ler o corpo da importacao em lote aos poucos
+    private final ObjectMapper objectMapper;
+
+    // Tamanho de pagina, linha extra e proximo cursor das listagens por keyset
+    private final PaginacaoKeyset paginacao;
+
+    @Value("${libraryapi.exclusao.tamanho-maximo:500}") // Maior quantidade de ids aceita no DELETE em lote
+    private int tamanhoMaximoExclusaoLote;
+
+    @Value("${libraryapi.lookup.tamanho-maximo:200}") // Maior quantidade de ids aceita no POST /autores/lookup
+    private int tamanhoMaximoLookup;
+
     /*
     Não é necessario a presença de um construtor, pois o Lombok com a anotação @RequiredArgsConstructor
     gera automaticamente um construtor que recebe o AutorService como parâmetro e o atribui ao campo 'service'.
@@ -59,10 +115,63 @@ public class AutorController {
 
     }
 
+    @PostMapping("/com-livros") // Cadastra um autor e os seus livros juntos: ou todos sao gravados, ou nenhum
+    public ResponseEntity<Object> salvarComLivros(@RequestBody @Valid AutorComLivrosCadastroDTO cadastro) {
+        try {
+            Autor autor = cadastro.autor().mapearParaAutor();
+            List<Livro> livros = cadastro.livros().stream().map(LivroCadastroDTO::mapearParaLivro).toList();
+            autorComLivrosService.cadastrar(autor, livros); // Uma transacao, com os INSERTs em batch no commit
+
+            URI location = ServletUriComponentsBuilder
+                    .fromCurrentContextPath()
+                    .path("/autores/{id}")
+                    .buildAndExpand(autor.getId())
+                    .toUri();
+            var autorDTO = new AutorDTO(autor.getId(), autor.getNome(), autor.getDataNascimento(), autor.getNacionalidade());
+            var livrosDTO = livros.stream()
+                    .map(l -> new LivroResumoDTO(l.getId(), autor.getId(), l.getIsbn(), l.getTitulo(), l.getDataPublicacao(), l.getGenero(), l.getPreco()))
+                    .toList();
+            return ResponseEntity.created(location).body(AutorComLivrosDTO.de(autorDTO, livrosDTO)); // 201 com os ids gerados
+        } catch (RegistroDuplicadoException e) {
+            var erroDTO = ErroResposta.conflito(e.getMessage()); // 409 Conflict
+            return ResponseEntity.status(erroDTO.status()).body(erroDTO);
+        } catch (OperacaoNaoPermitidaException e) {
+            var erroResposta = ErroResposta.respostaPadrao(e.getMessage()); // 400 Bad Request
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+    }
+
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}) // Importacao em lote: array JSON ou NDJSON
+    public ResponseEntity<Object> salvarEmLote(InputStream corpo) throws IOException { // Le o corpo como stream para nao materializar o lote inteiro
+        // readValues percorre tanto um array JSON quanto uma sequencia de objetos separados por linha (NDJSON)
+        try (MappingIterator<AutorDTO> autores = objectMapper.readerFor(AutorDTO.class).readValues(corpo)) {
+            var importacao = importacaoService.importar(autores); // Cada linha recebe seu proprio status (201, 409 ou 422)
+            if (!importacao.corpoMalFormado()) {
+                return ResponseEntity.ok(importacao.resultados());
+            }
+            // Corpo mal formado no meio: 207 com os resultados das linhas lidas e o erro de leitura no final
+            List<ResultadoImportacaoDTO> resultados = new ArrayList<>(importacao.resultados());
+            resultados.add(ResultadoImportacaoDTO.malFormado(resultados.size(), importacao.erroLeitura()));
+            return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(resultados);
+        } catch (JsonProcessingException e) { // Mal formado ja no inicio: nada foi lido nem gravado
+            var erroResposta = ErroResposta.respostaPadrao("Corpo da importacao mal formado: " + e.getOriginalMessage());
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+    }
+
     @GetMapping("/{id}") // Mapeia requisicoes HTTP GET para este metodo, com um parametro de caminho {id}
-    public ResponseEntity<AutorDTO> obterDetalhes(@PathVariable("id") String id) {
+    public ResponseEntity<byte[]> obterDetalhes( // Retorna os bytes do JSON ja serializado (guardados no AutorRespostaCache)
+            @PathVariable("id") String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) { // ETag que o cliente ja possui
         var idAutor = UUID.fromString(id); // Converte a string do ID para UUID
-        Optional<Autor> autorOpcional = service.obterPorId(idAutor); // Busca o autor pelo ID usando o servico
+
+        Optional<AutorRespostaCache.RespostaCacheada> emCache = respostaCache.buscar(idAutor); // Primeiro procura a resposta pronta
+        if (emCache.isPresent()) { // Sem banco e sem Jackson
+            return responderComEtag(emCache.get(), ifNoneMatch);
+        }
+
+        long geracao = respostaCache.geracao(idAutor); // Lida antes do banco: uma alteracao durante a consulta impede o armazenamento
+        Optional<Autor> autorOpcional = service.obterPorId(idAutor); // findById: servido pelo cache de segundo nivel quando o autor ja foi lido
         if (autorOpcional.isPresent()) { // Verifica se o autor foi encontrado
             Autor autor = autorOpcional.get(); // Pega o autor do Optional
             AutorDTO dto = new AutorDTO( // Cria o DTO para retornar na resposta
@@ -70,67 +179,198 @@ public class AutorController {
                     autor.getNome(),
                     autor.getDataNascimento(),
                     autor.getNacionalidade());
-            return  ResponseEntity.ok(dto); // Retorna status 200 OK com o DTO no corpo da resposta
+            String etag = EtagAutor.gerar(autor.getVersao(), autor.getDataAtualizacao()); // ETag derivada da data de atualizacao (e da versao)
+            return responderComEtag(respostaCache.armazenar(idAutor, dto, etag, geracao), ifNoneMatch); // Serializa uma vez e guarda para os proximos GETs
         }
 
         return ResponseEntity.notFound().build();
     }
 
+    // Responde 304 Not Modified se o cliente ja possui a representacao atual, ou 200 OK com o JSON pronto
+    private ResponseEntity<byte[]> responderComEtag(AutorRespostaCache.RespostaCacheada resposta, String ifNoneMatch) {
+        if (EtagAutor.corresponde(ifNoneMatch, resposta.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(resposta.etag()).build(); // Sem corpo
+        }
+        return ResponseEntity.ok()
+                .eTag(resposta.etag()) // ETag para o If-None-Match dos proximos GETs e para o If-Match do PUT
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(resposta.json()); // Retorna status 200 OK com o JSON no corpo da resposta
+    }
+
     @DeleteMapping("/{id}") // Mapeia requisicoes HTTP DELETE para este metodo, com um parametro de caminho {id}
     public ResponseEntity<Object> deletar(@PathVariable("id") String id) {
         try {
             var idAutor = UUID.fromString(id); // Converte a string do ID para UUID
-            Optional<Autor> autorOpcional = service.obterPorId(idAutor); // Busca o autor pelo ID usando o servico
-            if (autorOpcional.isEmpty()) {
-                return ResponseEntity.notFound().build(); // Retorna status 404 Not Found se o autor nao for encontrado
-            }
-            service.deletar(autorOpcional.get()); // Deleta o autor encontrado
+            service.deletar(idAutor); // Um unico DELETE que so remove o autor se ele nao possuir livros
             return ResponseEntity.noContent().build(); // Retorna status 204 No Content indicando que a exclusao foi bem sucedida
+        } catch (RegistroNaoEncontradoException e) {
+            return ResponseEntity.notFound().build(); // Retorna status 404 Not Found se o autor nao for encontrado
         } catch (OperacaoNaoPermitidaException e) { // Captura excecao de operacao nao permitida
             var erroResposta = ErroResposta.respostaPadrao(e.getMessage()); // Cria o DTO de erro com status 400 Bad Request
             return ResponseEntity.status(erroResposta.status()).body(erroResposta); // Retorna status 400 com o DTO de erro no corpo da resposta
         }
     }
 
+    @DeleteMapping // Exclusao em lote: recebe uma lista de ids no corpo e retorna um resultado por id
+    public ResponseEntity<Object> deletarEmLote(@RequestBody List<UUID> ids) {
+        if (ids.isEmpty() || ids.size() > tamanhoMaximoExclusaoLote) { // Limita o tamanho do IN enviado ao banco
+            var erroResposta = ErroResposta.respostaPadrao("Informe entre 1 e " + tamanhoMaximoExclusaoLote + " ids por requisicao.");
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+        try {
+            return ResponseEntity.ok(service.deletarEmLote(ids)); // Cada id recebe seu proprio status (204, 400 ou 404)
+        } catch (OperacaoNaoPermitidaException e) {
+            var erroResposta = ErroResposta.respostaPadrao(e.getMessage());
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+    }
+
+    @PostMapping("/lookup") // Busca varios autores por id: um resultado por id (200 ou 404), na ordem recebida
+    public ResponseEntity<Object> buscarPorIds(@RequestBody List<UUID> ids) {
+        if (ids.isEmpty() || ids.size() > tamanhoMaximoLookup || ids.contains(null)) { // Limita o tamanho da lista enviada ao banco
+            var erroResposta = ErroResposta.respostaPadrao("Informe entre 1 e " + tamanhoMaximoLookup + " ids por requisicao.");
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+        return ResponseEntity.ok(service.buscarPorIds(ids)); // Cache de segundo nivel + um unico comando para os ids restantes
+    }
+
     @GetMapping // Mapeia requisições HTTP GET para este endpoint
-    public ResponseEntity<List<AutorDTO>> pesquisar( // Define retorno com status HTTP e lista de DTOs
+    public ResponseEntity<Object> pesquisar( // Define retorno com status HTTP e uma pagina de DTOs (ou o DTO de erro)
                   @RequestParam(value = "nome", required = false) String nome, // Parametro opcional 'nome' vindo da query string // filtro por nome (pode ser null)
-                  @RequestParam(value = "nacionalidade", required = false) String nacionalidade) { // Parametro opcional 'nacionalidade' // filtro por nacionalidade (pode ser null)
-        List<Autor> lista = service.pesquisaByExample(nome, nacionalidade); // Chama o service para obter lista de entidades conforme filtros
-        List<AutorDTO> listaDTO = lista // Inicia conversão de entidades para DTOs
-                .stream() // Cria stream para processar a coleção de forma funcional // permite mapear cada elemento
-                .map(autor -> new AutorDTO( // Para cada Autor cria um AutorDTO com os campos necessários
-                        autor.getId(), // Mantém o id do autor // identificador para o cliente
-                        autor.getNome(), // Transfere o nome // campo apresentado na API
-                        autor.getDataNascimento(), // Transfere data de nascimento // preserva o tipo (ex.: LocalDate)
-                        autor.getNacionalidade() // Transfere nacionalidade
-                )) // Fecha o map
-                .collect(Collectors.toList()); // Coleta os DTOs em uma List<AutorDTO>
-        return ResponseEntity.ok(listaDTO); // Retorna 200 OK com a lista de DTOs no corpo da resposta
+                  @RequestParam(value = "nacionalidade", required = false) String nacionalidade, // Parametro opcional 'nacionalidade' // filtro por nacionalidade (pode ser null)
+                  @RequestParam(value = "cursor", required = false) String cursor, // Token opaco devolvido na pagina anterior (ausente na primeira pagina)
+                  @RequestParam(value = "tamanho", required = false) Integer tamanho, // Quantidade de autores por pagina, limitada por libraryapi.paginacao.tamanho-maximo
+                  @RequestParam(value = "contarTotal", defaultValue = "false") boolean contarTotal) { // Se true, inclui uma estimativa do total de resultados
+        try {
+            ChaveNomeId depoisDe = ChaveNomeId.ler(cursor); // Chave (nome, id) da ultima linha da pagina anterior
+            var recorte = paginacao.buscar(tamanho, limite -> // Busca uma linha a mais para saber se existe proxima pagina
+                    service.pesquisaPaginada(nome, nacionalidade, depoisDe.nome(), depoisDe.id(), limite));
+            Long totalEstimado = contarTotal ? service.estimarTotal(nome, nacionalidade) : null; // A contagem so e feita quando pedida
+
+            return ResponseEntity.ok(new PaginaDTO<>(recorte.conteudo(), // Retorna 200 OK com a pagina de DTOs no corpo da resposta
+                    recorte.proximoCursor(ultimo -> ChaveNomeId.cursor(ultimo.nome(), ultimo.id())), totalEstimado));
+        } catch (IllegalArgumentException e) { // Cursor mal formado ou adulterado pelo cliente
+            var erroResposta = ErroResposta.respostaPadrao("Cursor de paginacao invalido."); // Cria o DTO de erro com status 400 Bad Request
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+    }
+
+    @GetMapping("/com-livros") // Mesma paginacao e filtros de GET /autores, com os livros de cada autor
+    public ResponseEntity<Object> pesquisarComLivros(
+                  @RequestParam(value = "nome", required = false) String nome,
+                  @RequestParam(value = "nacionalidade", required = false) String nacionalidade,
+                  @RequestParam(value = "cursor", required = false) String cursor, // Token opaco devolvido na pagina anterior
+                  @RequestParam(value = "tamanho", required = false) Integer tamanho) { // Quantidade de autores por pagina, limitada por libraryapi.paginacao.tamanho-maximo
+        try {
+            ChaveNomeId depoisDe = ChaveNomeId.ler(cursor); // Mesmo formato de cursor (nome, id) de GET /autores
+            var recorte = paginacao.buscar(tamanho, limite ->
+                    service.pesquisaPaginada(nome, nacionalidade, depoisDe.nome(), depoisDe.id(), limite));
+            // Duas consultas por pagina, independente do numero de autores: a pagina de autores e os livros de todos eles
+            List<AutorComLivrosDTO> conteudo = service.carregarLivros(recorte.conteudo()); // A linha extra ja foi descartada
+
+            return ResponseEntity.ok(new PaginaDTO<>(conteudo,
+                    recorte.proximoCursor(ultimo -> ChaveNomeId.cursor(ultimo.nome(), ultimo.id())), null));
+        } catch (IllegalArgumentException e) { // Cursor mal formado ou adulterado pelo cliente
+            var erroResposta = ErroResposta.respostaPadrao("Cursor de paginacao invalido.");
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+    }
+
+    @GetMapping("/resumo") // Quantidade de livros, ultima publicacao e valor total por autor, paginado por (nome, id)
+    public ResponseEntity<Object> resumo(
+                  @RequestParam(value = "cursor", required = false) String cursor, // Mesmo formato de cursor de GET /autores
+                  @RequestParam(value = "tamanho", required = false) Integer tamanho) { // Quantidade de autores por pagina, limitada por libraryapi.paginacao.tamanho-maximo
+        try {
+            ChaveNomeId depoisDe = ChaveNomeId.ler(cursor);
+            var recorte = paginacao.buscar(tamanho, limite -> service.resumoPaginado(depoisDe.nome(), depoisDe.id(), limite));
+            return ResponseEntity.ok(recorte.pagina(ultimo -> ChaveNomeId.cursor(ultimo.nome(), ultimo.id())));
+        } catch (IllegalArgumentException e) { // Cursor mal formado ou adulterado pelo cliente
+            var erroResposta = ErroResposta.respostaPadrao("Cursor de paginacao invalido.");
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+    }
+
+    @GetMapping("/alteracoes") // Sincronizacao incremental: autores alterados/excluidos desde uma marca, em ordem de (data, id)
+    public ResponseEntity<Object> alteracoes(
+                  @RequestParam(value = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde, // Primeira sincronizacao (ISO-8601); ausente = desde o inicio
+                  @RequestParam(value = "cursor", required = false) String cursor, // Cursor devolvido na sincronizacao anterior (tem prioridade sobre desde)
+                  @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        try {
+            // Chave (data, id) da ultima alteracao ja entregue; sem cursor, a marca desde (ou o inicio) com o menor id
+            ChaveDataId depoisDe = CursorPaginacao.ler(cursor, 2,
+                    chave -> new ChaveDataId(LocalDateTime.parse(chave.get(0)), UUID.fromString(chave.get(1))),
+                    new ChaveDataId(desde != null ? desde : LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0, 0)));
+            var recorte = paginacao.buscar(tamanho, limite -> service.sincronizar(depoisDe.data(), depoisDe.id(), limite));
+
+            // Diferente das paginas comuns, o cursor aponta para a ultima alteracao mesmo sem proxima pagina, e uma
+            // pagina vazia devolve a mesma posicao: o cliente guarda o cursor e continua dele na proxima sincronizacao
+            AlteracaoAutorDTO ultima = recorte.ultima();
+            String proximoCursor;
+            if (ultima != null) {
+                proximoCursor = CursorPaginacao.codificar(ultima.dataAlteracao().toString(), ultima.id().toString());
+            } else { // Sem alteracoes novas: o proprio cursor recebido, ou a marca inicial codificada
+                proximoCursor = cursor != null ? cursor : CursorPaginacao.codificar(depoisDe.data().toString(), depoisDe.id().toString());
+            }
+
+            return ResponseEntity.ok(new SincronizacaoDTO<>(recorte.conteudo(), proximoCursor, recorte.possuiMais()));
+        } catch (IllegalArgumentException | DateTimeParseException e) { // Cursor mal formado ou adulterado pelo cliente
+            var erroResposta = ErroResposta.respostaPadrao("Cursor de sincronizacao invalido.");
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+    }
+
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE) // Exporta todos os autores, um JSON por linha
+    public ResponseEntity<StreamingResponseBody> exportar() {
+        // O corpo e escrito em uma thread assincrona do Spring MVC, conforme as linhas sao lidas do cursor do banco
+        StreamingResponseBody corpo = exportacaoService::exportarNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON) // application/x-ndjson
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"autores.ndjson\"") // Sugere o download como arquivo
+                .body(corpo);
     }
 
     @PutMapping("/{id}") // Mapeia requisicoes HTTP PUT para este metodo, com um parametro de caminho {id}
     public ResponseEntity<Object> atualizar(
             @PathVariable("id") String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, // ETag recebida no GET; sem ela a atualizacao nao confere a versao
             @RequestBody @Valid AutorDTO dto) { // Recebe o ID do autor a ser atualizado e os dados atualizados no corpo da requisicao, validando o DTO conforme as anotações de validação presentes na classe AutorDTO
         try {
             var idAutor = UUID.fromString(id); // Converte a string do ID para UUID
-            Optional<Autor> autorOpcional = service.obterPorId(idAutor); // Busca o autor pelo ID usando o servico
+            long versaoEsperada = EtagAutor.versaoEsperada(ifMatch); // Versao que o cliente acredita estar atualizando
 
-            if (autorOpcional.isEmpty()) {  // Verifica se o autor foi encontrado
-                return ResponseEntity.notFound().build(); // Retorna status 404 Not Found se o autor nao for encontrado
-            }
-
-            var autor = autorOpcional.get();  // Pega o autor do Optional
-            autor.setNome(dto.nome());  // Atualiza o nome do autor
-            autor.setDataNascimento(dto.dataNascimento());  // Atualiza a data de nascimento do autor
-            autor.setNacionalidade(dto.nacionalidade());  // Atualiza a nacionalidade do autor
-            service.atualizar(autor); // Atualiza o autor encontrado
+            Autor atualizado = service.atualizar(idAutor, dto.mapearParaAutor(), versaoEsperada); // Um unico UPDATE condicional no banco
 
-            return ResponseEntity.noContent().build(); // Retorna status 204 No Content indicando que a atualizacao foi bem sucedida
+            return ResponseEntity.noContent() // Retorna status 204 No Content com a nova ETag
+                    .eTag(EtagAutor.gerar(atualizado.getVersao(), atualizado.getDataAtualizacao()))
+                    .build();
+        } catch (RegistroNaoEncontradoException e) {
+            return ResponseEntity.notFound().build(); // Retorna status 404 Not Found se o autor nao for encontrado
+        } catch (VersaoDesatualizadaException e) { // Outra requisicao alterou o autor depois do GET do cliente
+            var erroDTO = ErroResposta.precondicaoFalhou(e.getMessage()); // Cria o DTO de erro com status 412 Precondition Failed
+            return ResponseEntity.status(erroDTO.status()).body(erroDTO);
         } catch (RegistroDuplicadoException e) {
             var erroDTO = ErroResposta.conflito(e.getMessage());
             return ResponseEntity.status(erroDTO.status()).body(erroDTO);
+        } catch (IllegalArgumentException e) { // ID ou If-Match mal formados
+            var erroDTO = ErroResposta.respostaPadrao(e.getMessage());
+            return ResponseEntity.status(erroDTO.status()).body(erroDTO);
+        }
+    }
+
+    // Chave (data, id) do cursor de GET /autores/alteracoes
+    private record ChaveDataId(LocalDateTime data, UUID id) {
+    }
+
+    // Chave (nome, id) dos cursores de GET /autores, /autores/com-livros e /autores/resumo
+    private record ChaveNomeId(String nome, UUID id) {
+        static final ChaveNomeId INICIO = new ChaveNomeId(null, null); // Primeira pagina: sem chave
+
+        static ChaveNomeId ler(String cursor) {
+            return CursorPaginacao.ler(cursor, 2, chave -> new ChaveNomeId(chave.get(0), UUID.fromString(chave.get(1))), INICIO);
+        }
+
+        static String cursor(String nome, UUID id) {
+            return CursorPaginacao.codificar(nome, id.toString());
         }
     }
 }
@@ -0,0 +1,73 @@
+package com.example.cursoudemy.libraryapi.controller;
+
+import com.example.cursoudemy.libraryapi.config.CacheConfiguration;
+import com.example.cursoudemy.libraryapi.controller.dto.EstatisticaCacheDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.EstatisticaGeneroDTO;
+import com.example.cursoudemy.libraryapi.service.AutorCacheInvalidador;
+import com.example.cursoudemy.libraryapi.service.estatisticas.EstatisticasCatalogo;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/estatisticas")
+// Tera a URL base http://localhost:8080/estatisticas
+// Controlador REST com estatisticas de uso para dimensionamento da aplicacao
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class EstatisticasController {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheManager jCacheManager; // Mesmo CacheManager entregue ao Hibernate em CacheConfiguration
+
+    private final AutorCacheInvalidador cacheInvalidador;
+
+    private final EstatisticasCatalogo estatisticasCatalogo; // Agregados por genero mantidos em memoria
+
+    @GetMapping("/cache") // Acertos, falhas e evictions de cada regiao do cache de segundo nivel
+    public ResponseEntity<Map<String, Object>> cache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics(); // Requer hibernate.generate_statistics
+        List<EstatisticaCacheDTO> regioes = List.of(
+                estatisticaRegiao(CacheConfiguration.REGIAO_AUTOR, statistics.getDomainDataRegionStatistics(CacheConfiguration.REGIAO_AUTOR)),
+                estatisticaRegiao(CacheConfiguration.REGIAO_CONSULTAS_AUTOR, statistics.getQueryRegionStatistics(CacheConfiguration.REGIAO_CONSULTAS_AUTOR))
+        );
+
+        Map<String, Object> resposta = new LinkedHashMap<>();
+        resposta.put("regioes", regioes);
+        resposta.put("invalidacoesExplicitas", cacheInvalidador.getInvalidacoes()); // Invalidacoes apos escritas nativas
+        return ResponseEntity.ok(resposta);
+    }
+
+    @GetMapping("/livros") // Quantidade e preco minimo/medio/maximo/total de livros por genero, sem consultar o banco
+    public ResponseEntity<List<EstatisticaGeneroDTO>> livros() {
+        return ResponseEntity.ok(estatisticasCatalogo.listar());
+    }
+
+    private EstatisticaCacheDTO estatisticaRegiao(String regiao, CacheRegionStatistics hibernate) {
+        long evictions = 0;
+        long tamanho = 0;
+        Cache<Object, Object> cache = jCacheManager.getCache(regiao); // Nulo enquanto a regiao ainda nao foi usada
+        if (cache != null) {
+            var caffeine = cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class); // Cache nativo do Caffeine por tras do JCache
+            evictions = caffeine.stats().evictionCount(); // Requer monitoring.native-statistics em application.conf
+            tamanho = caffeine.estimatedSize();
+        }
+        if (hibernate == null) {
+            return new EstatisticaCacheDTO(regiao, 0, 0, 0, evictions, tamanho);
+        }
+        return new EstatisticaCacheDTO(regiao, hibernate.getHitCount(), hibernate.getMissCount(),
+                hibernate.getPutCount(), evictions, tamanho);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.cursoudemy.libraryapi.controller;
+
+import com.example.cursoudemy.libraryapi.controller.commom.CursorPaginacao;
+import com.example.cursoudemy.libraryapi.controller.commom.PaginacaoKeyset;
+import com.example.cursoudemy.libraryapi.controller.dto.ErroResposta;
+import com.example.cursoudemy.libraryapi.controller.dto.LivroDTO;
+import com.example.cursoudemy.libraryapi.repository.LivroRepositoryCustom;
+import com.example.cursoudemy.libraryapi.service.LivroService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/livros")
+// Tera a URL base http://localhost:8080/livros
+// Catalogo de livros paginado por cursor (keyset), no mesmo formato de GET /autores
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class LivroController {
+
+    private final LivroService service;
+
+    private final PaginacaoKeyset paginacao; // Tamanho de pagina, linha extra e proximo cursor
+
+    @GetMapping // Catalogo ordenado por titulo e preco
+    public ResponseEntity<Object> listar(
+            @RequestParam(value = "cursor", required = false) String cursor, // Token opaco devolvido na pagina anterior
+            @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        try {
+            // Chave (titulo, preco, id) da ultima linha da pagina anterior; preco vazio = sem preco
+            LivroRepositoryCustom.ChaveTitulo depoisDe = CursorPaginacao.ler(cursor, 3, chave -> new LivroRepositoryCustom.ChaveTitulo(
+                    chave.get(0),
+                    chave.get(1).isEmpty() ? null : new BigDecimal(chave.get(1)),
+                    UUID.fromString(chave.get(2))), null);
+            var recorte = paginacao.buscar(tamanho, limite -> service.pesquisaPorTitulo(depoisDe, limite)); // Uma linha a mais indica se existe proxima pagina
+            return ResponseEntity.ok(recorte.pagina(ultimo -> CursorPaginacao.codificar(
+                    ultimo.titulo(),
+                    ultimo.preco() == null ? "" : ultimo.preco().toPlainString(),
+                    ultimo.id().toString())));
+        } catch (IllegalArgumentException e) { // Cursor mal formado ou adulterado pelo cliente
+            var erroResposta = ErroResposta.respostaPadrao("Cursor de paginacao invalido.");
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+    }
+
+    @GetMapping("/publicados") // Livros publicados entre duas datas (opcionais), ordenados pela data de publicacao
+    public ResponseEntity<Object> listarPorDataPublicacao(
+            @RequestParam(value = "inicio", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam(value = "fim", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        try {
+            ChaveData depoisDe = CursorPaginacao.ler(cursor, 2, // Chave (dataPublicacao, id) da ultima linha da pagina anterior
+                    chave -> new ChaveData(LocalDate.parse(chave.get(0)), UUID.fromString(chave.get(1))), ChaveData.INICIO);
+            var recorte = paginacao.buscar(tamanho, limite -> service.pesquisaPorDataPublicacao(inicio, fim, depoisDe.data(), depoisDe.id(), limite));
+            return ResponseEntity.ok(recorte.pagina(ultimo -> CursorPaginacao.codificar(
+                    ultimo.dataPublicacao().toString(),
+                    ultimo.id().toString())));
+        } catch (IllegalArgumentException | DateTimeParseException e) { // Cursor mal formado ou adulterado pelo cliente
+            var erroResposta = ErroResposta.respostaPadrao("Cursor de paginacao invalido.");
+            return ResponseEntity.status(erroResposta.status()).body(erroResposta);
+        }
+    }
+
+    private record ChaveData(LocalDate data, UUID id) {
+        static final ChaveData INICIO = new ChaveData(null, null); // Primeira pagina: sem chave
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.cursoudemy.libraryapi.controller;
+
+import com.example.cursoudemy.libraryapi.controller.dto.ErroResposta;
+import com.example.cursoudemy.libraryapi.controller.dto.OperacaoLoteDTO;
+import com.example.cursoudemy.libraryapi.exceptions.OperacaoNaoPermitidaException;
+import com.example.cursoudemy.libraryapi.exceptions.RegistroDuplicadoException;
+import com.example.cursoudemy.libraryapi.exceptions.RegistroNaoEncontradoException;
+import com.example.cursoudemy.libraryapi.models.GeneroLivro;
+import com.example.cursoudemy.libraryapi.service.lote.LivroOperacaoLoteService;
+import com.example.cursoudemy.libraryapi.service.lote.OperacaoLote;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/livros/operacoes-lote")
+// Operacoes em massa sobre livros executadas em blocos e em segundo plano (LivroOperacaoLoteService)
+// Iniciar retorna 202 Accepted com o Location do status, que o cliente consulta ate a operacao terminar
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class LivroOperacaoLoteController {
+
+    private final LivroOperacaoLoteService service;
+
+    // Corpo de POST /livros/operacoes-lote/atualizar-data-publicacao
+    public record AtualizarDataPublicacaoDTO(@NotNull(message = "A data de publicacao nao pode ser nula") LocalDate dataPublicacao) {
+    }
+
+    // Corpo de POST /livros/operacoes-lote/excluir-por-genero
+    public record ExcluirPorGeneroDTO(@NotNull(message = "O genero nao pode ser nulo") GeneroLivro genero) {
+    }
+
+    @PostMapping("/atualizar-data-publicacao") // Atualiza a data de publicacao de todos os livros, bloco a bloco
+    public ResponseEntity<Object> atualizarDataPublicacao(@RequestBody @Valid AtualizarDataPublicacaoDTO dto) {
+        try {
+            return aceita(service.iniciarAtualizacaoDataPublicacao(dto.dataPublicacao()));
+        } catch (RegistroDuplicadoException e) {
+            var erroDTO = ErroResposta.conflito(e.getMessage()); // 409: ja existe uma operacao igual em execucao
+            return ResponseEntity.status(erroDTO.status()).body(erroDTO);
+        }
+    }
+
+    @PostMapping("/excluir-por-genero") // Exclui todos os livros de um genero, bloco a bloco
+    public ResponseEntity<Object> excluirPorGenero(@RequestBody @Valid ExcluirPorGeneroDTO dto) {
+        try {
+            return aceita(service.iniciarExclusaoPorGenero(dto.genero()));
+        } catch (RegistroDuplicadoException e) {
+            var erroDTO = ErroResposta.conflito(e.getMessage()); // 409: ja existe uma exclusao deste genero em execucao
+            return ResponseEntity.status(erroDTO.status()).body(erroDTO);
+        }
+    }
+
+    @GetMapping // Lista as operacoes mais recentes (de todas as instancias), das mais recentes para as mais antigas
+    public ResponseEntity<List<OperacaoLoteDTO>> listar() {
+        return ResponseEntity.ok(service.listar().stream() // Ja vem ordenadas por criada_em desc
+                .map(OperacaoLoteDTO::de)
+                .toList());
+    }
+
+    @GetMapping("/{id}") // Progresso de uma operacao
+    public ResponseEntity<OperacaoLoteDTO> obter(@PathVariable("id") String id) {
+        return service.buscar(UUID.fromString(id))
+                .map(operacao -> ResponseEntity.ok(OperacaoLoteDTO.de(operacao)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/cancelar") // O bloco em andamento termina e confirma; os seguintes nao sao executados
+    public ResponseEntity<Object> cancelar(@PathVariable("id") String id) {
+        try {
+            return ResponseEntity.accepted().body(OperacaoLoteDTO.de(service.cancelar(UUID.fromString(id))));
+        } catch (RegistroNaoEncontradoException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OperacaoNaoPermitidaException e) {
+            var erroDTO = ErroResposta.conflito(e.getMessage()); // 409: a operacao nao esta em um estado que permita cancelar
+            return ResponseEntity.status(erroDTO.status()).body(erroDTO);
+        }
+    }
+
+    @PostMapping("/{id}/retomar") // Continua uma operacao cancelada ou com falha a partir do ultimo bloco confirmado
+    public ResponseEntity<Object> retomar(@PathVariable("id") String id) {
+        try {
+            return ResponseEntity.accepted().body(OperacaoLoteDTO.de(service.retomar(UUID.fromString(id))));
+        } catch (RegistroNaoEncontradoException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OperacaoNaoPermitidaException | RegistroDuplicadoException e) { // Estado invalido ou outra operacao igual ativa
+            var erroDTO = ErroResposta.conflito(e.getMessage());
+            return ResponseEntity.status(erroDTO.status()).body(erroDTO);
+        }
+    }
+
+    private ResponseEntity<Object> aceita(OperacaoLote operacao) {
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path("/livros/operacoes-lote/{id}")
+                .buildAndExpand(operacao.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(OperacaoLoteDTO.de(operacao)); // 202: a operacao continua em segundo plano
+    }
+}
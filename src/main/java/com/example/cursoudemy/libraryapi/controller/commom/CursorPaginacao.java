@@ -0,0 +1,43 @@
+package com.example.cursoudemy.libraryapi.controller.commom;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilitario para montar e ler os cursores (continuation tokens) da paginacao por keyset.
+ * O cursor guarda os valores da ultima linha entregue na pagina anterior (ex.: nome e id do ultimo autor),
+ * codificados em Base64 URL-safe para que o cliente trate o valor como opaco e apenas o devolva na proxima chamada.
+ */
+public final class CursorPaginacao {
+
+    private static final String SEPARADOR = "\u001F"; // Separador de unidade (ASCII 31), que nao aparece em nomes digitados
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding(); // Base64 seguro para query string
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private CursorPaginacao() { // Classe utilitaria, nao deve ser instanciada
+    }
+
+    // Junta os valores da chave de ordenacao e gera o token opaco
+    public static String codificar(String... valores) {
+        String conteudo = String.join(SEPARADOR, valores);
+        return ENCODER.encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Le o token recebido do cliente e devolve os valores na mesma ordem em que foram codificados
+    public static List<String> decodificar(String cursor, int quantidadeValores) {
+        String conteudo = new String(DECODER.decode(cursor), StandardCharsets.UTF_8); // Lanca IllegalArgumentException se nao for Base64 valido
+        String[] valores = conteudo.split(SEPARADOR, -1); // -1 mantem valores vazios no final
+        if (valores.length != quantidadeValores) { // Cursor adulterado ou de outro endpoint
+            throw new IllegalArgumentException("Cursor de paginacao invalido.");
+        }
+        return Arrays.asList(valores);
+    }
+
+    // Decodifica e converte a chave do cursor; sem cursor (primeira pagina) devolve semCursor
+    public static <K> K ler(String cursor, int quantidadeValores, Function<List<String>, K> leitura, K semCursor) {
+        return cursor != null ? leitura.apply(decodificar(cursor, quantidadeValores)) : semCursor;
+    }
+}
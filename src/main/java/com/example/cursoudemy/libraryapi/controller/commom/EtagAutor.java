@@ -0,0 +1,57 @@
+package com.example.cursoudemy.libraryapi.controller.commom;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Monta e interpreta as ETags dos recursos de Autor.
+ * A ETag tem o formato "versao-dataAtualizacao": a data de atualizacao (coluna de auditoria) muda a cada escrita e
+ * identifica a representacao para o If-None-Match do GET; a versao (@Version) e conferida pelo If-Match do PUT,
+ * entao a atualizacao so acontece se ninguem alterou o autor depois que o cliente o leu.
+ */
+public final class EtagAutor {
+
+    public static final long QUALQUER_VERSAO = -1; // Sem If-Match (ou "If-Match: *") a atualizacao nao confere a versao
+
+    private EtagAutor() { // Classe utilitaria, nao deve ser instanciada
+    }
+
+    // Gera a ETag (entre aspas, como exige o HTTP) a partir da versao e da data de atualizacao do autor
+    public static String gerar(Long versao, LocalDateTime dataAtualizacao) {
+        long marcaTempo = dataAtualizacao == null ? 0 : dataAtualizacao.toInstant(ZoneOffset.UTC).toEpochMilli(); // Registros antigos sem auditoria
+        return "\"" + versao + "-" + Long.toHexString(marcaTempo) + "\"";
+    }
+
+    // Confere se alguma das ETags do If-None-Match e igual a ETag atual (comparacao fraca, como manda o HTTP para GET)
+    public static boolean corresponde(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidata : ifNoneMatch.split(",")) {
+            String valor = candidata.trim();
+            if (valor.equals("*") || removerPrefixoFraco(valor).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Extrai a versao esperada do cabecalho If-Match; lanca IllegalArgumentException se o valor nao for uma ETag deste recurso
+    public static long versaoEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return QUALQUER_VERSAO;
+        }
+        String valor = removerPrefixoFraco(ifMatch.trim()); // ETag fraca: a comparacao usa o mesmo valor
+        if (valor.length() < 2 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            throw new IllegalArgumentException("Cabecalho If-Match invalido.");
+        }
+        String conteudo = valor.substring(1, valor.length() - 1);
+        int separador = conteudo.indexOf('-');
+        String versao = separador < 0 ? conteudo : conteudo.substring(0, separador); // Somente a parte da versao e conferida
+        return Long.parseLong(versao); // NumberFormatException tambem e IllegalArgumentException
+    }
+
+    private static String removerPrefixoFraco(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
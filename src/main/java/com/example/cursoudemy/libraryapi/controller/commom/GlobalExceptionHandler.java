@@ -2,7 +2,10 @@ package com.example.cursoudemy.libraryapi.controller.commom;
 
 import com.example.cursoudemy.libraryapi.controller.dto.ErroCampo;
 import com.example.cursoudemy.libraryapi.controller.dto.ErroResposta;
+import com.example.cursoudemy.libraryapi.exceptions.ServicoIndisponivelException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -23,6 +26,14 @@ public class GlobalExceptionHandler {
         return new ErroResposta(HttpStatus.UNPROCESSABLE_ENTITY.value(), "Erro de Validação", listaErros);
     }
 
+    @ExceptionHandler(ServicoIndisponivelException.class) // Lancada pelo LimitadorConexoes quando o pool do banco esta saturado
+    public ResponseEntity<ErroResposta> handleServicoIndisponivelException(ServicoIndisponivelException e) {
+        var erroResposta = ErroResposta.servicoIndisponivel(e.getMessage());
+        return ResponseEntity.status(erroResposta.status())
+                .header(HttpHeaders.RETRY_AFTER, "1") // Sugere ao cliente tentar novamente em 1 segundo
+                .body(erroResposta);
+    }
+
     /**
      * EXPLICANDO MELHOR O CÓDIGO ACIMA:
      *
@@ -0,0 +1,49 @@
+package com.example.cursoudemy.libraryapi.controller.commom;
+
+import com.example.cursoudemy.libraryapi.controller.dto.PaginaDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Passos comuns da paginacao por keyset dos controllers (GET /autores, /autores/com-livros, /autores/resumo,
+ * /autores/alteracoes e /livros): limita o tamanho pedido, busca uma linha a mais para saber se existe proxima pagina,
+ * descarta essa linha e monta o proximo cursor a partir da ultima linha entregue.
+ */
+@Component
+public class PaginacaoKeyset {
+
+    @Value("${libraryapi.paginacao.tamanho-padrao:20}") // Tamanho de pagina usado quando o cliente nao informa 'tamanho'
+    private int tamanhoPadraoPagina;
+
+    @Value("${libraryapi.paginacao.tamanho-maximo:100}") // Maior pagina aceita, protege o heap contra pedidos gigantes
+    private int tamanhoMaximoPagina;
+
+    // consulta recebe o limite (tamanho da pagina + 1) e devolve as linhas a partir da chave do cursor
+    public <T> Recorte<T> buscar(Integer tamanho, IntFunction<List<T>> consulta) {
+        int tamanhoPagina = Math.min(Math.max(tamanho != null ? tamanho : tamanhoPadraoPagina, 1), tamanhoMaximoPagina);
+        List<T> linhas = consulta.apply(tamanhoPagina + 1);
+        boolean possuiMais = linhas.size() > tamanhoPagina;
+        return new Recorte<>(possuiMais ? linhas.subList(0, tamanhoPagina) : linhas, possuiMais); // Descarta a linha extra
+    }
+
+    // Linhas de uma pagina; possuiMais indica que a linha extra veio, ou seja, que existe proxima pagina
+    public record Recorte<T>(List<T> conteudo, boolean possuiMais) {
+
+        public T ultima() { // Nula em pagina vazia
+            return conteudo.isEmpty() ? null : conteudo.get(conteudo.size() - 1);
+        }
+
+        // O cursor aponta para a ultima linha desta pagina; nulo quando nao existem mais paginas
+        public String proximoCursor(Function<T, String> cursorDe) {
+            return possuiMais ? cursorDe.apply(ultima()) : null;
+        }
+
+        public PaginaDTO<T> pagina(Function<T, String> cursorDe) {
+            return new PaginaDTO<>(conteudo, proximoCursor(cursorDe), null);
+        }
+    }
+}
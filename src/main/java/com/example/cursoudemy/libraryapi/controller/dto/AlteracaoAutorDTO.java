@@ -0,0 +1,23 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import com.example.cursoudemy.libraryapi.repository.AutorRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Um autor alterado (ou excluido) desde a marca informada em GET /autores/alteracoes
+// Quando excluido e true o registro e uma lapide: apenas id e dataAlteracao (data da exclusao) sao preenchidos
+public record AlteracaoAutorDTO(
+        UUID id,
+        String nome,
+        LocalDate dataNascimento,
+        String nacionalidade,
+        LocalDateTime dataAlteracao,
+        boolean excluido) {
+
+    public static AlteracaoAutorDTO de(AutorRepository.AutorAlteracao alteracao) {
+        return new AlteracaoAutorDTO(alteracao.getId(), alteracao.getNome(), alteracao.getDataNascimento(),
+                alteracao.getNacionalidade(), alteracao.getDataAlteracao(), Boolean.TRUE.equals(alteracao.getExcluido()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Um evento do outbox enviado em GET /alteracoes: entidade AUTOR ou LIVRO, operacao CRIADO, ALTERADO ou EXCLUIDO
+// posicao e crescente e tambem e o id do evento SSE (o cliente reconecta com Last-Event-ID = ultima posicao recebida)
+public record AlteracaoDTO(long posicao, String entidade, String operacao, UUID idRegistro, LocalDateTime dataEvento) {
+}
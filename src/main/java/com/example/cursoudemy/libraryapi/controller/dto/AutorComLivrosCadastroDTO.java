@@ -0,0 +1,19 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// Corpo de POST /autores/com-livros: um autor novo e os seus livros, gravados juntos em uma unica transacao
+// O limite de livros mantem a transacao (e o persistence context) curta; acima disso use a importacao em lote
+public record AutorComLivrosCadastroDTO(
+        @NotNull(message = "O autor deve ser informado")
+        @Valid // Aplica as validacoes de AutorDTO
+        AutorDTO autor,
+        @NotEmpty(message = "Informe ao menos um livro")
+        @Size(max = 500, message = "Informe no maximo 500 livros por requisicao")
+        List<@Valid @NotNull(message = "O livro nao pode ser nulo") LivroCadastroDTO> livros) {
+}
@@ -0,0 +1,18 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+// Representa um autor com os seus livros (GET /autores/com-livros)
+public record AutorComLivrosDTO(
+        UUID id,
+        String nome,
+        LocalDate dataNascimento,
+        String nacionalidade,
+        List<LivroResumoDTO> livros) {
+
+    public static AutorComLivrosDTO de(AutorDTO autor, List<LivroResumoDTO> livros) {
+        return new AutorComLivrosDTO(autor.id(), autor.nome(), autor.dataNascimento(), autor.nacionalidade(), livros);
+    }
+}
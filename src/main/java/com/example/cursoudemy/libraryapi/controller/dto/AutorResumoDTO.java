@@ -0,0 +1,23 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import com.example.cursoudemy.libraryapi.repository.AutorRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Representa um autor com o resumo dos seus livros (GET /autores/resumo)
+// ultimaPublicacao e nula quando o autor nao possui livros (ou nenhum tem data de publicacao)
+public record AutorResumoDTO(
+        UUID id,
+        String nome,
+        String nacionalidade,
+        long quantidadeLivros,
+        LocalDate ultimaPublicacao,
+        BigDecimal valorTotal) {
+
+    public static AutorResumoDTO de(AutorRepository.AutorResumo resumo) {
+        return new AutorResumoDTO(resumo.getId(), resumo.getNome(), resumo.getNacionalidade(),
+                resumo.getQuantidadeLivros(), resumo.getUltimaPublicacao(), resumo.getValorTotal());
+    }
+}
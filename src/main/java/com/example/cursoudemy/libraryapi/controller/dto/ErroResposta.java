@@ -12,4 +12,12 @@ public record ErroResposta(int status, String mensagem, List<ErroCampo> erros) {
     public static ErroResposta conflito(String mensagem) {  // Cria uma resposta de erro de conflito com status 409 Conflict
         return new ErroResposta(HttpStatus.CONFLICT.value(), mensagem, List.of());  // Retorna uma nova instancia de ErroResposta com status 409, mensagem fornecida e lista vazia de erros
     }
+
+    public static ErroResposta precondicaoFalhou(String mensagem) {  // Cria uma resposta de erro de pre-condicao com status 412 Precondition Failed
+        return new ErroResposta(HttpStatus.PRECONDITION_FAILED.value(), mensagem, List.of());  // Usada quando o If-Match nao confere com a versao atual do registro
+    }
+
+    public static ErroResposta servicoIndisponivel(String mensagem) {  // Cria uma resposta de erro com status 503 Service Unavailable
+        return new ErroResposta(HttpStatus.SERVICE_UNAVAILABLE.value(), mensagem, List.of());  // Usada quando o limitador de conexoes nao libera uma permissao a tempo
+    }
 }
@@ -0,0 +1,6 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+// Estatisticas de uma regiao do cache de segundo nivel, usadas para dimensionar os limites em application.conf
+// acertos/falhas/insercoes vem do Hibernate; evictions (por tamanho ou expiracao) e tamanho vem do Caffeine
+public record EstatisticaCacheDTO(String regiao, long acertos, long falhas, long insercoes, long evictions, long tamanho) {
+}
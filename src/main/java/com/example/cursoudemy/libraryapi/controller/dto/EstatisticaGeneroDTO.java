@@ -0,0 +1,11 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import com.example.cursoudemy.libraryapi.models.GeneroLivro;
+
+import java.math.BigDecimal;
+
+// Estatisticas dos livros de um genero (GET /estatisticas/livros), mantidas em memoria pelo EstatisticasCatalogo
+// quantidade conta todos os livros; minimo/medio/maximo e valorTotal consideram apenas os livros com preco (nulos sem livros com preco)
+public record EstatisticaGeneroDTO(GeneroLivro genero, long quantidade, BigDecimal precoMinimo, BigDecimal precoMedio,
+                                   BigDecimal precoMaximo, BigDecimal valorTotal) {
+}
@@ -0,0 +1,41 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import com.example.cursoudemy.libraryapi.models.GeneroLivro;
+import com.example.cursoudemy.libraryapi.models.Livro;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Dados de um livro recebidos no cadastro de autor com livros (POST /autores/com-livros)
+// Os limites seguem o mapeamento da entidade Livro
+public record LivroCadastroDTO(
+        @NotBlank(message = "O ISBN do livro nao pode ser vazio")
+        @Size(max = 20, message = "O ISBN do livro deve conter no maximo 20 caracteres")
+        String isbn,
+        @NotBlank(message = "O titulo do livro nao pode ser vazio")
+        @Size(max = 200, message = "O titulo do livro deve conter no maximo 200 caracteres")
+        String titulo,
+        @NotNull(message = "A data de publicacao do livro nao pode ser nula")
+        @PastOrPresent(message = "A data de publicacao do livro nao pode ser futura")
+        LocalDate dataPublicacao,
+        @NotNull(message = "O genero do livro nao pode ser nulo")
+        GeneroLivro genero,
+        @DecimalMin(value = "0.00", message = "O preco do livro nao pode ser negativo")
+        BigDecimal preco) {
+
+    // Mapeia o DTO para a entidade Livro; o autor e associado pelo servico
+    public Livro mapearParaLivro() {
+        Livro livro = new Livro();
+        livro.setIsbn(this.isbn);
+        livro.setTitulo(this.titulo);
+        livro.setDataPublicacao(this.dataPublicacao);
+        livro.setGenero(this.genero);
+        livro.setPreco(this.preco);
+        return livro;
+    }
+}
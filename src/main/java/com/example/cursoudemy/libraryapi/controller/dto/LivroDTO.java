@@ -0,0 +1,32 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import com.example.cursoudemy.libraryapi.models.GeneroLivro;
+import com.example.cursoudemy.libraryapi.models.Livro;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Representa um livro do catalogo (GET /livros), com os dados do autor ja incluidos
+public record LivroDTO(
+        UUID id,
+        String isbn,
+        String titulo,
+        LocalDate dataPublicacao,
+        GeneroLivro genero,
+        BigDecimal preco,
+        AutorDTO autor) {
+
+    // Mapeia a entidade para o DTO; o autor precisa ter vindo na mesma consulta (join fetch) para nao gerar outro SELECT
+    public static LivroDTO de(Livro livro) {
+        var autor = livro.getAutor();
+        return new LivroDTO(
+                livro.getId(),
+                livro.getIsbn(),
+                livro.getTitulo(),
+                livro.getDataPublicacao(),
+                livro.getGenero(),
+                livro.getPreco(),
+                new AutorDTO(autor.getId(), autor.getNome(), autor.getDataNascimento(), autor.getNacionalidade()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import com.example.cursoudemy.libraryapi.models.GeneroLivro;
+import com.example.cursoudemy.libraryapi.repository.LivroRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Representa um livro listado dentro do seu autor (GET /autores/com-livros), sem repetir os dados do autor
+// idAutor vem da chave estrangeira e e usado para agrupar os livros por autor
+public record LivroResumoDTO(
+        UUID id,
+        UUID idAutor,
+        String isbn,
+        String titulo,
+        LocalDate dataPublicacao,
+        GeneroLivro genero,
+        BigDecimal preco) {
+
+    public static LivroResumoDTO de(LivroRepository.LivroResumo livro) {
+        return new LivroResumoDTO(livro.getId(), livro.getIdAutor(), livro.getIsbn(), livro.getTitulo(),
+                livro.getDataPublicacao(), livro.getGenero(), livro.getPreco());
+    }
+}
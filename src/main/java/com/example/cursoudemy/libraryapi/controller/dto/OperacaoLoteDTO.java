@@ -0,0 +1,41 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import com.example.cursoudemy.libraryapi.service.lote.OperacaoLote;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Estado de uma operacao em lote sobre livros, retornado por /livros/operacoes-lote
+// percentual e calculado sobre o total contado no inicio; pode passar de 100 se livros forem cadastrados durante a operacao
+public record OperacaoLoteDTO(
+        UUID id,
+        OperacaoLote.Tipo tipo,
+        String parametro,
+        OperacaoLote.Status status,
+        long totalPrevisto,
+        long processados,
+        long lotes,
+        double percentual,
+        UUID ultimoId,
+        String erro,
+        LocalDateTime criadaEm,
+        LocalDateTime finalizadaEm) {
+
+    public static OperacaoLoteDTO de(OperacaoLote operacao) {
+        long processados = operacao.getProcessados();
+        double percentual = operacao.getTotalPrevisto() > 0 ? processados * 100.0 / operacao.getTotalPrevisto() : 100.0;
+        return new OperacaoLoteDTO(
+                operacao.getId(),
+                operacao.getTipo(),
+                operacao.getParametro(),
+                operacao.getStatus(),
+                operacao.getTotalPrevisto(),
+                processados,
+                operacao.getLotes(),
+                percentual,
+                operacao.getUltimoId(),
+                operacao.getErro(),
+                operacao.getCriadaEm(),
+                operacao.getFinalizadaEm());
+    }
+}
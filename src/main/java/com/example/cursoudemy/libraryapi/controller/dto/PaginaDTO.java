@@ -0,0 +1,8 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import java.util.List;
+
+// Representa uma pagina de resultados paginada por cursor (keyset)
+// proximoCursor e nulo quando nao existem mais paginas; totalEstimado so e preenchido quando o cliente pede a contagem
+public record PaginaDTO<T>(List<T> conteudo, String proximoCursor, Long totalEstimado) {
+}
@@ -0,0 +1,17 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+// Resultado de um id na busca de varios autores (POST /autores/lookup), na mesma ordem dos ids recebidos
+// status: codigo HTTP equivalente ao GET /autores/{id} (200 ou 404); autor e nulo quando nao encontrado
+public record ResultadoBuscaAutorDTO(UUID id, int status, AutorDTO autor) {
+    public static ResultadoBuscaAutorDTO encontrado(AutorDTO autor) {  // Autor encontrado (200 OK)
+        return new ResultadoBuscaAutorDTO(autor.id(), HttpStatus.OK.value(), autor);
+    }
+
+    public static ResultadoBuscaAutorDTO naoEncontrado(UUID id) {  // Autor inexistente (404 Not Found)
+        return new ResultadoBuscaAutorDTO(id, HttpStatus.NOT_FOUND.value(), null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.UUID;
+
+// Resultado da exclusao de um autor na exclusao em lote (DELETE /autores)
+// status: codigo HTTP equivalente ao DELETE individual (204, 400 ou 404)
+public record ResultadoExclusaoDTO(UUID id, int status, String mensagem) {
+    public static ResultadoExclusaoDTO excluido(UUID id) {  // Autor excluido (204 No Content)
+        return new ResultadoExclusaoDTO(id, HttpStatus.NO_CONTENT.value(), null);
+    }
+
+    public static ResultadoExclusaoDTO possuiLivros(UUID id, String mensagem) {  // Autor mantido por possuir livros (400 Bad Request)
+        return new ResultadoExclusaoDTO(id, HttpStatus.BAD_REQUEST.value(), mensagem);
+    }
+
+    public static ResultadoExclusaoDTO naoEncontrado(UUID id) {  // Autor inexistente (404 Not Found)
+        return new ResultadoExclusaoDTO(id, HttpStatus.NOT_FOUND.value(), "Autor nao encontrado.");
+    }
+}
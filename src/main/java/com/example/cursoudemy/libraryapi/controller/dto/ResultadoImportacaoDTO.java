@@ -0,0 +1,26 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+// Resultado de uma linha da importacao em lote de autores (POST /autores/batch)
+// linha: posicao do autor no corpo da requisicao (comecando em 0); status: codigo HTTP equivalente ao POST individual
+public record ResultadoImportacaoDTO(int linha, int status, UUID id, String mensagem, List<ErroCampo> erros) {
+    public static ResultadoImportacaoDTO criado(int linha, UUID id) {  // Linha inserida com sucesso (201 Created)
+        return new ResultadoImportacaoDTO(linha, HttpStatus.CREATED.value(), id, null, List.of());
+    }
+
+    public static ResultadoImportacaoDTO conflito(int linha, String mensagem) {  // Autor ja cadastrado ou repetido no lote (409 Conflict)
+        return new ResultadoImportacaoDTO(linha, HttpStatus.CONFLICT.value(), null, mensagem, List.of());
+    }
+
+    public static ResultadoImportacaoDTO invalido(int linha, List<ErroCampo> erros) {  // Linha reprovada no Bean Validation (422 Unprocessable Entity)
+        return new ResultadoImportacaoDTO(linha, HttpStatus.UNPROCESSABLE_ENTITY.value(), null, "Erro de Validação", erros);
+    }
+
+    public static ResultadoImportacaoDTO malFormado(int linha, String mensagem) {  // Corpo ilegivel a partir desta linha; nada dela em diante foi lido (400 Bad Request)
+        return new ResultadoImportacaoDTO(linha, HttpStatus.BAD_REQUEST.value(), null, mensagem, List.of());
+    }
+}
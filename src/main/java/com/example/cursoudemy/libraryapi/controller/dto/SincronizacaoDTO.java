@@ -0,0 +1,8 @@
+package com.example.cursoudemy.libraryapi.controller.dto;
+
+import java.util.List;
+
+// Resposta de GET /autores/alteracoes. Diferente de PaginaDTO, o cursor sempre vem preenchido (mesmo sem alteracoes):
+// o cliente guarda o valor e o envia na proxima sincronizacao. possuiMais indica que ja existe outra pagina a buscar agora.
+public record SincronizacaoDTO<T>(List<T> alteracoes, String cursor, boolean possuiMais) {
+}
@@ -0,0 +1,7 @@
+package com.example.cursoudemy.libraryapi.exceptions; // pacote onde a exceção está localizada
+
+public class RegistroNaoEncontradoException extends RuntimeException { // exceção personalizada para operações sobre um registro que não existe no banco
+    public RegistroNaoEncontradoException(String mensagem) { // construtor que recebe uma mensagem descritiva sobre o registro ausente
+        super(mensagem); // encaminha a mensagem para a superclasse (disponível via getMessage())
+    } // final do construtor
+} // final da classe
@@ -0,0 +1,7 @@
+package com.example.cursoudemy.libraryapi.exceptions; // pacote onde a exceção está localizada
+
+public class ServicoIndisponivelException extends RuntimeException { // exceção personalizada para quando nao ha conexao livre dentro do tempo de espera (sobrecarga)
+    public ServicoIndisponivelException(String mensagem) { // construtor que recebe uma mensagem descritiva sobre a indisponibilidade
+        super(mensagem); // encaminha a mensagem para a superclasse (disponível via getMessage())
+    } // final do construtor
+} // final da classe
@@ -0,0 +1,7 @@
+package com.example.cursoudemy.libraryapi.exceptions; // pacote onde a exceção está localizada
+
+public class VersaoDesatualizadaException extends RuntimeException { // exceção personalizada para o controle de concorrência otimista (If-Match / @Version)
+    public VersaoDesatualizadaException(String mensagem) { // construtor que recebe uma mensagem descritiva sobre a versão divergente
+        super(mensagem); // encaminha a mensagem para a superclasse (disponível via getMessage())
+    } // final do construtor
+} // final da classe
@@ -1,9 +1,13 @@
 package com.example.cursoudemy.libraryapi.models;
 
+import com.example.cursoudemy.libraryapi.models.id.UuidV7;
 import jakarta.persistence.*; // Importa as anotações JPA para mapeamento ORM
 import lombok.Getter; // Gera automaticamente os métodos getter
 import lombok.Setter; // Gera automaticamente os métodos setter
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,16 +18,22 @@ import java.util.List;
 import java.util.UUID; // Identificador único universal
 
 @Entity // Indica que esta classe é uma entidade JPA
-@Table(name = "autor", schema = "public") // Mapeia para a tabela 'autor' no schema 'public'
+@Table(name = "autor", schema = "public", // Mapeia para a tabela 'autor' no schema 'public'
+        uniqueConstraints = @UniqueConstraint( // Indice unico usado pelo INSERT ... ON CONFLICT de AutorRepository.inserirSeNaoExistir
+                name = "ux_autor_nome_nascimento_nacionalidade",
+                columnNames = {"nome", "data_nascimento", "nacionalidade"}))
 @Getter // Lombok: gera os getters para todos os campos
 @Setter // Lombok: gera os setters para todos os campos
 @ToString(exclude = "livros") // Lombok: gera o método toString para a classe poder ser impressa como string
+@Cacheable // Guarda os autores no cache de segundo nivel (Caffeine via JCache), evitando ir ao banco em buscas por id
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "autor") // READ_WRITE: atualizacoes pelo Hibernate mantem o cache consistente
 @EntityListeners(AuditingEntityListener.class) // Habilita o suporte a auditoria (criação e modificação automática de datas se essas ou outros campos forem anotados)
 public class Autor {
 
     @Id // Indica o campo como chave primária
     @Column(name = "id") // Mapeia para a coluna 'id'
-    @GeneratedValue(strategy = GenerationType.UUID) // Gera o valor automaticamente como UUID
+    @UuidV7 // Gera o valor automaticamente como UUID versao 7 (ordenado pelo tempo), que mantem o indice da chave primaria compacto
+    // Para voltar ao UUID versao 4 (aleatorio) basta usar @GeneratedValue(strategy = GenerationType.UUID)
     // Existem outros GeneratedValue, como AUTO, IDENTITY, SEQUENCE, TABLE, mas UUID é o mais adequado para identificadores únicos
     // AUTO: O JPA escolhe a estratégia de geração de ID mais adequada para o banco de dados
     // IDENTITY: O banco de dados gera o ID automaticamente (usado principalmente em bancos como MySQL e PostgreSQL)
@@ -41,9 +51,11 @@ public class Autor {
     @Column(name = "nacionalidade", length = 50, nullable = false) // Mapeia para a coluna 'nacionalidade', obrigatório, até 50 caracteres
     private String nacionalidade; // Nacionalidade do autor
 
-    @OneToMany(mappedBy = "id_autor", fetch = FetchType.EAGER)
-    //        , cascade = CascadeType.ALL // Relacionamento um-para-muitos com a entidade Livro, pegando o nome da coluna que referencia o autor na tabela Livro, com operações em cascata e carregamento imediato
-    @Transient // Indica que este campo não será persistido no banco de dados
+    @OneToMany(mappedBy = "autor", fetch = FetchType.LAZY) // mappedBy e o atributo Livro.autor (dono da chave estrangeira id_autor), nao o nome da coluna
+    //        , cascade = CascadeType.ALL // Relacionamento um-para-muitos com a entidade Livro, com operações em cascata
+    // LAZY: os livros so sao lidos quando acessados. @BatchSize: ao acessar os livros de um autor, o Hibernate carrega
+    // junto os livros de ate 100 autores ja carregados na sessao, com um unico "where id_autor in (...)" em vez de um por autor
+    @BatchSize(size = 100)
     private List<Livro> livros; // Lista de livros escritos pelo autor
 
     @CreatedDate
@@ -54,6 +66,10 @@ public class Autor {
     @Column(name = "data_atualizacao")
     private LocalDateTime dataAtualizacao; // Data e hora da última atualização do autor
 
+    @Version // Controle de concorrencia otimista: incrementada a cada atualizacao e exposta como ETag
+    @Column(name = "versao", nullable = false)
+    private Long versao; // Versao do registro, conferida pelo If-Match do PUT
+
     @Column(name = "id_usuario")
     private UUID usuarioCadastro; // Identificador do usuário que cadastrou o autor
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.cursoudemy.libraryapi.models;
 
+import com.example.cursoudemy.libraryapi.models.id.UuidV7;
 import jakarta.persistence.*; // Importa as anotações JPA para mapeamento ORM
 import lombok.Data; // Lombok: gera getters, setters, equals, hashCode e toString automaticamente
 import lombok.ToString;
@@ -15,7 +16,8 @@ import java.util.UUID; // Identificador único universal
 public class Livro {
     @Id // Indica o campo como chave primária
     @Column(name = "id") // Mapeia para a coluna 'id'
-    @GeneratedValue(strategy = GenerationType.UUID) // Gera o valor automaticamente como UUID
+    @UuidV7 // Gera o valor automaticamente como UUID versao 7 (ordenado pelo tempo), que mantem o indice da chave primaria compacto
+    // Para voltar ao UUID versao 4 (aleatorio) basta usar @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id; // Identificador único do livro
 
     @Column(name = "isbn", length = 20, nullable = false) // Mapeia para a coluna 'isbn', obrigatório, até 20 caracteres
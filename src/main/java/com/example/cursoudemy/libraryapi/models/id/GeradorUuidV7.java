@@ -0,0 +1,41 @@
+package com.example.cursoudemy.libraryapi.models.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de UUIDs versao 7 (RFC 9562): os 48 bits mais significativos sao o instante em milissegundos,
+ * entao ids gerados em sequencia ficam proximos no indice B-tree da chave primaria. Com UUIDs v4 (aleatorios)
+ * cada INSERT cai em uma pagina qualquer do indice, o que fragmenta o indice e multiplica as escritas.
+ *
+ * Layout: unix_ts_ms (48 bits) | versao 7 (4 bits) | contador (12 bits) | variante (2 bits) | aleatorio (62 bits).
+ * O contador (metodo 1 da RFC) torna os ids monotonicos dentro do mesmo milissegundo; se ele estourar,
+ * o milissegundo e adiantado, mantendo a ordem. O estado e um unico AtomicLong atualizado por compareAndSet,
+ * sem lock global entre threads.
+ */
+public final class GeradorUuidV7 {
+
+    private static final AtomicLong ULTIMO = new AtomicLong(); // (milissegundo << 12) | contador do ultimo id gerado
+
+    private GeradorUuidV7() { // Classe utilitaria, nao deve ser instanciada
+    }
+
+    public static UUID gerar() {
+        long agora = System.currentTimeMillis() << 12; // Milissegundo atual com o contador zerado
+        long anterior;
+        long proximo;
+        do {
+            anterior = ULTIMO.get();
+            proximo = Math.max(agora, anterior + 1); // Mesmo milissegundo (ou relogio voltou): incrementa o contador
+        } while (!ULTIMO.compareAndSet(anterior, proximo)); // Outra thread gerou antes: tenta de novo
+
+        long milissegundo = proximo >>> 12;
+        long contador = proximo & 0xFFFL;
+        long maisSignificativos = (milissegundo << 16) | (0x7L << 12) | contador; // unix_ts_ms | versao 7 | contador
+        // Os bits aleatorios so distinguem ids gerados no mesmo instante por processos diferentes;
+        // ThreadLocalRandom evita a contencao do SecureRandom no caminho de INSERT
+        long menosSignificativos = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // variante 10
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.cursoudemy.libraryapi.models.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca o id de uma entidade para ser gerado como UUID versao 7 (ordenado pelo tempo) pelo GeradorUuidV7.
+ * Substitui @GeneratedValue(strategy = GenerationType.UUID) entidade a entidade; as que continuarem com
+ * GenerationType.UUID seguem recebendo UUIDs versao 4 (aleatorios).
+ */
+@IdGeneratorType(UuidV7Generator.class) // Liga a anotacao ao gerador do Hibernate
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,23 @@
+package com.example.cursoudemy.libraryapi.models.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+// Gerador do Hibernate usado pela anotacao @UuidV7: gera o id na aplicacao, antes do INSERT
+// (assim como o GenerationType.UUID, o que mantem o JDBC batching funcionando)
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return GeradorUuidV7.gerar();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY; // Somente na insercao; o id nunca muda
+    }
+}
@@ -1,21 +1,213 @@
 package com.example.cursoudemy.libraryapi.repository;
 
+import com.example.cursoudemy.libraryapi.config.CacheConfiguration;
 import com.example.cursoudemy.libraryapi.models.Autor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.swing.text.html.Option;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface AutorRepository extends JpaRepository<Autor, UUID> {
+public interface AutorRepository extends JpaRepository<Autor, UUID>, AutorRepositoryCustom { // AutorRepositoryCustom adiciona a paginacao por keyset
 
+    // Consultas guardadas no cache de consultas do Hibernate (regiao "autor-consultas").
+    // O Hibernate invalida a regiao quando a tabela autor e alterada por ele; os comandos nativos deste repositorio
+    // sao invalidados pelo AutorCacheInvalidador.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfiguration.REGIAO_CONSULTAS_AUTOR)
+    })
     List<Autor> findByNome(String nome);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfiguration.REGIAO_CONSULTAS_AUTOR)
+    })
     List<Autor> findByNacionalidade(String nacionalidade);
+
     List<Autor> findByNomeAndNacionalidade(String nome, String nacionalidade);
 
     Optional<Autor> findByNomeAndDataNascimentoAndNacionalidade(
             String nome, LocalDate dataNascimento, String nacionalidade
     );
+
+    // Busca em uma unica consulta os candidatos a duplicidade de um lote inteiro de autores.
+    // Os tres IN retornam um superconjunto; quem chama confere a combinacao exata (nome, data, nacionalidade) em memoria.
+    @Query("""
+            select a from Autor a
+            where a.nome in :nomes
+              and a.dataNascimento in :datas
+              and a.nacionalidade in :nacionalidades
+            """)
+    List<Autor> buscarCandidatosDuplicados(
+            @Param("nomes") Collection<String> nomes,
+            @Param("datas") Collection<LocalDate> datas,
+            @Param("nacionalidades") Collection<String> nacionalidades
+    );
+
+    // SQL nativo: insere o autor somente se o indice unico (nome, data_nascimento, nacionalidade) nao acusar conflito.
+    // Em um unico comando: retorna o id inserido, ou nenhuma linha quando o autor ja existe (duplicidade).
+    @Transactional // Precisa de uma transacao de escrita (as consultas do repositorio sao somente leitura por padrao)
+    @Query(value = """
+            insert into autor (id, nome, data_nascimento, nacionalidade, data_cadastro, data_atualizacao)
+            values (:id, :nome, :dataNascimento, :nacionalidade, :agora, :agora)
+            on conflict (nome, data_nascimento, nacionalidade) do nothing
+            returning id
+            """, nativeQuery = true)
+    Optional<UUID> inserirSeNaoExistir(
+            @Param("id") UUID id,
+            @Param("nome") String nome,
+            @Param("dataNascimento") LocalDate dataNascimento,
+            @Param("nacionalidade") String nacionalidade,
+            @Param("agora") LocalDateTime agora
+    );
+
+    // SQL nativo: atualizacao condicional em um unico comando.
+    // So altera a linha se a versao conferir (ou se versaoEsperada for negativa, sem If-Match) e se nenhum OUTRO autor
+    // ja tiver o mesmo (nome, data_nascimento, nacionalidade). Retorna a nova versao, ou nenhuma linha se nada foi alterado.
+    @Transactional // Precisa de uma transacao de escrita (as consultas do repositorio sao somente leitura por padrao)
+    @Query(value = """
+            update autor a
+               set nome = :nome,
+                   data_nascimento = :dataNascimento,
+                   nacionalidade = :nacionalidade,
+                   data_atualizacao = :agora,
+                   versao = a.versao + 1
+             where a.id = :id
+               and (:versaoEsperada < 0 or a.versao = :versaoEsperada)
+               and not exists (
+                   select 1 from autor o
+                    where o.nome = :nome
+                      and o.data_nascimento = :dataNascimento
+                      and o.nacionalidade = :nacionalidade
+                      and o.id <> :id)
+            returning a.versao
+            """, nativeQuery = true)
+    Optional<Long> atualizarSeVersaoConferir(
+            @Param("id") UUID id,
+            @Param("nome") String nome,
+            @Param("dataNascimento") LocalDate dataNascimento,
+            @Param("nacionalidade") String nacionalidade,
+            @Param("agora") LocalDateTime agora,
+            @Param("versaoEsperada") long versaoEsperada
+    );
+
+    // Consulta apenas a versao atual; usada somente quando a atualizacao condicional nao alterou nenhuma linha
+    @Query(" select a.versao from Autor a where a.id = :id ")
+    Optional<Long> buscarVersao(@Param("id") UUID id);
+
+    // SQL nativo: exclui, em um unico comando, os autores informados que nao possuem livros.
+    // Retorna uma linha por autor encontrado, dizendo se ele foi excluido ou se foi mantido por ter livros;
+    // ids ausentes do resultado nao existem no banco.
+    @Transactional // Precisa de uma transacao de escrita (as consultas do repositorio sao somente leitura por padrao)
+    @Query(value = """
+            with alvo as (
+                select a.id,
+                       exists (select 1 from livro l where l.id_autor = a.id) as possui_livros
+                  from autor a
+                 where a.id in (:ids)
+            ), excluido as (
+                delete from autor a
+                 using alvo
+                 where a.id = alvo.id
+                   and not alvo.possui_livros
+                   and not exists (select 1 from livro l where l.id_autor = a.id)
+                returning a.id
+            )
+            select alvo.id as id, (excluido.id is not null) as excluido
+              from alvo
+              left join excluido on excluido.id = alvo.id
+            """, nativeQuery = true)
+    List<ResultadoExclusao> excluirSemLivros(@Param("ids") Collection<UUID> ids);
+
+    // Projecao de uma linha do resultado de excluirSemLivros
+    interface ResultadoExclusao {
+        UUID getId();
+        Boolean getExcluido();
+    }
+
+    // Resumo dos livros de uma pagina de autores em um unico comando (GET /autores/resumo).
+    // A subconsulta acha a pagina pelo indice (nome, id) a partir da chave (ultimoNome, ultimoId); so os livros desses
+    // autores sao agregados, pelo indice ix_livro_id_autor. O left join mantem os autores sem livros (quantidade 0).
+    @Transactional(readOnly = true)
+    @Query(value = """
+            select a.id as id, a.nome as nome, a.nacionalidade as nacionalidade,
+                   count(l.id) as quantidadeLivros,
+                   max(l.data_publicacao) as ultimaPublicacao,
+                   coalesce(sum(l.preco), 0) as valorTotal
+            from (
+                select id, nome, nacionalidade from autor
+                where (nome, id) > (:ultimoNome, :ultimoId)
+                order by nome, id
+                limit :limite
+            ) a
+            left join livro l on l.id_autor = a.id
+            group by a.id, a.nome, a.nacionalidade
+            order by a.nome, a.id
+            """, nativeQuery = true)
+    List<AutorResumo> resumirPagina(
+            @Param("ultimoNome") String ultimoNome,
+            @Param("ultimoId") UUID ultimoId,
+            @Param("limite") int limite
+    );
+
+    // Sincronizacao incremental (GET /autores/alteracoes): autores alterados e lapides de autores excluidos depois da
+    // chave (desde, ultimoId) e antes de ate, em uma unica lista ordenada por (data, id).
+    // Cada lado do union usa o proprio indice (data, id) e ja para em :limite linhas; o banco so intercala os dois.
+    @Transactional(readOnly = true)
+    @Query(value = """
+            select * from (
+                (select a.id as id, a.nome as nome, a.data_nascimento as dataNascimento, a.nacionalidade as nacionalidade,
+                        a.data_atualizacao as dataAlteracao, false as excluido
+                 from autor a
+                 where (a.data_atualizacao, a.id) > (:desde, :ultimoId) and a.data_atualizacao < :ate
+                 order by a.data_atualizacao, a.id
+                 limit :limite)
+                union all
+                (select e.id, null, null, null, e.data_exclusao, true
+                 from autor_exclusao e
+                 where (e.data_exclusao, e.id) > (:desde, :ultimoId) and e.data_exclusao < :ate
+                 order by e.data_exclusao, e.id
+                 limit :limite)
+            ) alteracoes
+            order by dataAlteracao, id
+            limit :limite
+            """, nativeQuery = true)
+    List<AutorAlteracao> buscarAlteracoes(
+            @Param("desde") LocalDateTime desde,
+            @Param("ultimoId") UUID ultimoId,
+            @Param("ate") LocalDateTime ate,
+            @Param("limite") int limite
+    );
+
+    // Projecao de uma linha de buscarAlteracoes; nas lapides (excluido = true) so id e dataAlteracao sao preenchidos
+    interface AutorAlteracao {
+        UUID getId();
+        String getNome();
+        LocalDate getDataNascimento();
+        String getNacionalidade();
+        LocalDateTime getDataAlteracao();
+        Boolean getExcluido();
+    }
+
+    // Projecao de uma linha de resumirPagina
+    interface AutorResumo {
+        UUID getId();
+        String getNome();
+        String getNacionalidade();
+        Long getQuantidadeLivros();
+        LocalDate getUltimaPublicacao();
+        BigDecimal getValorTotal();
+    }
 }
@@ -0,0 +1,28 @@
+package com.example.cursoudemy.libraryapi.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fragmento customizado do AutorRepository para consultas que nao podem ser expressas por Query Methods,
+ * como a paginacao por keyset com filtros opcionais. O Spring Data junta este fragmento ao repositorio
+ * e procura a implementacao na classe com o mesmo nome acrescido do sufixo "Impl".
+ */
+public interface AutorRepositoryCustom {
+
+    // Busca uma pagina de autores ordenada por (nome, id), comecando logo apos a chave (ultimoNome, ultimoId)
+    // Quando ultimoNome/ultimoId sao nulos, retorna a primeira pagina. Retorna projecoes, nao entidades.
+    List<AutorPagina> pesquisarPagina(String nome, String nacionalidade, String ultimoNome, UUID ultimoId, int limite);
+
+    // Retorna uma estimativa do total de autores que atendem aos filtros
+    long estimarTotal(String nome, String nacionalidade);
+
+    // Projecao de uma linha de pesquisarPagina
+    interface AutorPagina {
+        UUID getId();
+        String getNome();
+        LocalDate getDataNascimento();
+        String getNacionalidade();
+    }
+}
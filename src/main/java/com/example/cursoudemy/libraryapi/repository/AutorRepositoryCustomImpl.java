@@ -0,0 +1,117 @@
+package com.example.cursoudemy.libraryapi.repository;
+
+import com.example.cursoudemy.libraryapi.models.Autor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Implementacao do fragmento AutorRepositoryCustom usando a Criteria API do JPA.
+ * A paginacao e feita por keyset: em vez de "offset N", a consulta filtra pelas linhas que vem depois da ultima
+ * chave (nome, id) ja entregue. Com o indice em (nome, id) o banco le apenas as linhas da pagina pedida,
+ * entao a pagina 1000 custa o mesmo que a primeira.
+ * A pagina e montada como projecao (AutorPagina, lida de um Tuple): so as colunas exibidas sao lidas e nenhuma entidade
+ * e criada, entao nao ha snapshot para dirty checking nem carga das colunas de auditoria.
+ */
+public class AutorRepositoryCustomImpl implements AutorRepositoryCustom {
+
+    @PersistenceContext // Injeta o EntityManager da transacao corrente
+    private EntityManager entityManager;
+
+    @Override
+    public List<AutorPagina> pesquisarPagina(String nome, String nacionalidade, String ultimoNome, UUID ultimoId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Autor> autor = query.from(Autor.class);
+        Path<String> caminhoNome = autor.get("nome");
+        Path<UUID> caminhoId = autor.get("id");
+        Path<LocalDate> caminhoDataNascimento = autor.get("dataNascimento");
+        Path<String> caminhoNacionalidade = autor.get("nacionalidade");
+
+        List<Predicate> filtros = filtrosDePesquisa(cb, autor, nome, nacionalidade);
+        if (ultimoNome != null && ultimoId != null) { // Posiciona a consulta logo apos a ultima linha da pagina anterior
+            filtros.add(cb.or( // nome > ultimoNome OR (nome = ultimoNome AND id > ultimoId)
+                    cb.greaterThan(caminhoNome, ultimoNome),
+                    cb.and(cb.equal(caminhoNome, ultimoNome), cb.greaterThan(caminhoId, ultimoId))
+            ));
+        }
+
+        query.multiselect(caminhoId, caminhoNome, caminhoDataNascimento, caminhoNacionalidade) // Somente as colunas exibidas
+                .where(filtros.toArray(Predicate[]::new))
+                .orderBy(cb.asc(caminhoNome), cb.asc(caminhoId)); // Ordenacao estavel: o id desempata nomes iguais
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite) // Vira "limit" no SQL, sem offset
+                .setHint(HibernateHints.HINT_READ_ONLY, true) // Consulta somente leitura
+                .getResultList()
+                .stream()
+                .<AutorPagina>map(linha -> new LinhaAutor(linha.get(caminhoId), linha.get(caminhoNome),
+                        linha.get(caminhoDataNascimento), linha.get(caminhoNacionalidade)))
+                .toList();
+    }
+
+    @Override
+    public long estimarTotal(String nome, String nacionalidade) {
+        if (nome == null && nacionalidade == null) { // Sem filtros usa a estatistica do planner, que nao varre a tabela
+            Number estimativa = (Number) entityManager
+                    .createNativeQuery("select reltuples from pg_class where oid = cast('public.autor' as regclass)")
+                    .getSingleResult();
+            if (estimativa.longValue() >= 0) { // reltuples e -1 enquanto a tabela nunca foi analisada (ANALYZE)
+                return estimativa.longValue();
+            }
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Autor> autor = query.from(Autor.class);
+        query.select(cb.count(autor)).where(filtrosDePesquisa(cb, autor, nome, nacionalidade).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Filtros opcionais: ignora nulos, ignora caixa e busca por "contem"
+    private List<Predicate> filtrosDePesquisa(CriteriaBuilder cb, Root<Autor> autor, String nome, String nacionalidade) {
+        List<Predicate> filtros = new ArrayList<>();
+        if (nome != null) {
+            filtros.add(cb.like(cb.lower(autor.get("nome")), "%" + nome.toLowerCase(Locale.ROOT) + "%"));
+        }
+        if (nacionalidade != null) {
+            filtros.add(cb.like(cb.lower(autor.get("nacionalidade")), "%" + nacionalidade.toLowerCase(Locale.ROOT) + "%"));
+        }
+        return filtros;
+    }
+
+    private record LinhaAutor(UUID id, String nome, LocalDate dataNascimento, String nacionalidade) implements AutorPagina {
+
+        @Override
+        public UUID getId() {
+            return id;
+        }
+
+        @Override
+        public String getNome() {
+            return nome;
+        }
+
+        @Override
+        public LocalDate getDataNascimento() {
+            return dataNascimento;
+        }
+
+        @Override
+        public String getNacionalidade() {
+            return nacionalidade;
+        }
+    }
+}
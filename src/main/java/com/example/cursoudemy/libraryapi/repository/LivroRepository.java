@@ -11,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,7 +20,7 @@ import java.util.UUID;
  * e consultas customizadas. Utiliza Spring Data JPA para gerar automaticamente queries baseadas nos nomes dos métodos
  * e permite o uso de @Query para JPQL ou SQL nativo.
  */
-public interface LivroRepository extends JpaRepository<Livro, UUID> {
+public interface LivroRepository extends JpaRepository<Livro, UUID>, LivroRepositoryCustom { // LivroRepositoryCustom adiciona a paginacao por keyset
 
     boolean existsByAutor(Autor autor);
     // Query method: Busca todos os livros associados a um autor específico.
@@ -109,4 +110,103 @@ public interface LivroRepository extends JpaRepository<Livro, UUID> {
     @Transactional
     @Query(" update Livro set dataPublicacao = ?1 ")
     void atualizarDataDePublicacaoDeLivros(LocalDate data);
+
+    // Versoes em blocos dos dois comandos acima, usadas pelo LivroOperacaoLoteService.
+    // Cada chamada altera no maximo :limite livros com id maior que :ultimoId (ordem do indice da chave primaria)
+    // em uma transacao propria, e retorna quantos foram alterados e o maior id do bloco (ponto de partida do proximo).
+    // Sao consultas nativas (select sobre CTEs de escrita), por isso sem @Modifying, mas com transacao de escrita.
+    @Transactional
+    @Query(value = """
+            with lote as (
+                select id from livro
+                where id > :ultimoId
+                order by id
+                limit :limite
+            ), alterados as (
+                update livro l set data_publicacao = :data
+                from lote
+                where l.id = lote.id
+                returning l.id
+            )
+            select (select count(*) from alterados) as quantidade,
+                   (select id from lote order by id desc limit 1) as ultimoId
+            """, nativeQuery = true)
+    ResultadoLote atualizarDataDePublicacaoEmLote(
+            @Param("data") LocalDate data,
+            @Param("ultimoId") UUID ultimoId,
+            @Param("limite") int limite
+    );
+
+    // Usa o indice (genero, id) de comandos_slq.txt para achar o proximo bloco sem reler os livros ja excluidos.
+    // Retorna uma linha por preco excluido (com a quantidade), para o EstatisticasCatalogo descontar exatamente esses livros;
+    // todas as linhas trazem o ultimoId do bloco. Nenhuma linha: nao ha mais livros. Uma linha com quantidade nula:
+    // o bloco foi lido, mas os livros ja tinham sido excluidos por outra transacao.
+    @Transactional
+    @Query(value = """
+            with lote as (
+                select id from livro
+                where genero = :genero and id > :ultimoId
+                order by id
+                limit :limite
+            ), excluidos as (
+                delete from livro l
+                using lote
+                where l.id = lote.id
+                returning l.preco
+            )
+            select p.preco as preco, p.quantidade as quantidade, u.ultimo_id as ultimoId
+            from (select id as ultimo_id from lote order by id desc limit 1) u
+            left join (select preco, count(*) as quantidade from excluidos group by preco) p on true
+            """, nativeQuery = true)
+    List<PrecoExcluido> excluirPorGeneroEmLote(
+            @Param("genero") String genero,
+            @Param("ultimoId") UUID ultimoId,
+            @Param("limite") int limite
+    );
+
+    // Livros de varios autores em uma unica consulta (where id_autor in (...)), como projecao: l.autor.id e lido
+    // da chave estrangeira, sem join e sem carregar os autores. Quem chama agrupa os livros por idAutor.
+    @Query("""
+            select l.id as id, l.autor.id as idAutor, l.isbn as isbn, l.titulo as titulo,
+                   l.dataPublicacao as dataPublicacao, l.genero as genero, l.preco as preco
+            from Livro l
+            where l.autor.id in :idsAutores
+            order by l.titulo, l.id
+            """)
+    List<LivroResumo> buscarResumoPorAutores(@Param("idsAutores") Collection<UUID> idsAutores);
+
+    long countByGenero(GeneroLivro genero); // Total previsto da exclusao por genero (progresso da operacao em lote)
+
+    // Resultado de um bloco: ultimoId e nulo quando nao ha mais livros a processar
+    interface ResultadoLote {
+        Long getQuantidade();
+
+        UUID getUltimoId();
+    }
+
+    // Projecao de uma linha de buscarResumoPorAutores
+    interface LivroResumo {
+        UUID getId();
+
+        UUID getIdAutor();
+
+        String getIsbn();
+
+        String getTitulo();
+
+        LocalDate getDataPublicacao();
+
+        GeneroLivro getGenero();
+
+        BigDecimal getPreco();
+    }
+
+    // Linha de excluirPorGeneroEmLote: quantos livros com este preco (nulo = sem preco) foram excluidos no bloco
+    interface PrecoExcluido {
+        BigDecimal getPreco();
+
+        Long getQuantidade();
+
+        UUID getUltimoId();
+    }
 }
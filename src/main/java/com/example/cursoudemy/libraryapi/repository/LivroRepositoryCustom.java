@@ -0,0 +1,28 @@
+package com.example.cursoudemy.libraryapi.repository;
+
+import com.example.cursoudemy.libraryapi.models.Livro;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fragmento customizado do LivroRepository com a paginacao por keyset do catalogo (GET /livros).
+ * Cada pagina e uma unica consulta: o autor vem no mesmo SELECT (join fetch), entao serializar os livros
+ * nao dispara uma consulta por autor (N+1), qualquer que seja o tamanho da pagina.
+ */
+public interface LivroRepositoryCustom {
+
+    // Pagina ordenada por (titulo, preco, id), com os livros sem preco por ultimo dentro do mesmo titulo (nulls last
+    // do PostgreSQL). depoisDe e a chave da ultima linha da pagina anterior, ou nulo na primeira pagina.
+    List<Livro> pesquisarPaginaPorTitulo(ChaveTitulo depoisDe, int limite);
+
+    // Pagina de livros publicados entre inicio e fim (inclusivo, filtros nulos sao ignorados), ordenada por
+    // (dataPublicacao, id) e comecando logo apos (ultimaData, ultimoId)
+    List<Livro> pesquisarPaginaPorDataPublicacao(LocalDate inicio, LocalDate fim, LocalDate ultimaData, UUID ultimoId, int limite);
+
+    // Chave (titulo, preco, id) de um livro; preco pode ser nulo
+    record ChaveTitulo(String titulo, BigDecimal preco, UUID id) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.cursoudemy.libraryapi.repository;
+
+import com.example.cursoudemy.libraryapi.models.Livro;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Implementacao do fragmento LivroRepositoryCustom com a Criteria API, no mesmo formato do AutorRepositoryCustomImpl.
+ * O fetch("autor") vira um join no SQL e preenche Livro.autor (LAZY) na mesma consulta. Como o join e com uma
+ * associacao ManyToOne, cada livro continua sendo uma linha e o limit e aplicado pelo banco.
+ * Indices de comandos_slq.txt: (titulo, preco, id) e (data_publicacao, id).
+ */
+public class LivroRepositoryCustomImpl implements LivroRepositoryCustom {
+
+    @PersistenceContext // Injeta o EntityManager da transacao corrente
+    private EntityManager entityManager;
+
+    @Override
+    public List<Livro> pesquisarPaginaPorTitulo(ChaveTitulo depoisDe, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Livro> query = cb.createQuery(Livro.class);
+        Root<Livro> livro = query.from(Livro.class);
+        livro.fetch("autor"); // join fetch l.autor
+        Path<String> titulo = livro.get("titulo");
+        Path<BigDecimal> preco = livro.get("preco");
+        Path<UUID> id = livro.get("id");
+
+        if (depoisDe != null) { // (titulo, preco, id) > chave, com preco nulo depois de todos os precos
+            Predicate mesmoTituloDepois;
+            if (depoisDe.preco() != null) {
+                mesmoTituloDepois = cb.or(
+                        cb.greaterThan(preco, depoisDe.preco()),
+                        cb.isNull(preco),
+                        cb.and(cb.equal(preco, depoisDe.preco()), cb.greaterThan(id, depoisDe.id())));
+            } else { // A chave ja esta entre os livros sem preco: so restam os sem preco com id maior
+                mesmoTituloDepois = cb.and(cb.isNull(preco), cb.greaterThan(id, depoisDe.id()));
+            }
+            query.where(cb.or(
+                    cb.greaterThan(titulo, depoisDe.titulo()),
+                    cb.and(cb.equal(titulo, depoisDe.titulo()), mesmoTituloDepois)));
+        }
+        query.select(livro).orderBy(cb.asc(titulo), cb.asc(preco), cb.asc(id)); // asc = nulls last no PostgreSQL
+
+        return paginar(query, limite);
+    }
+
+    @Override
+    public List<Livro> pesquisarPaginaPorDataPublicacao(LocalDate inicio, LocalDate fim, LocalDate ultimaData, UUID ultimoId, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Livro> query = cb.createQuery(Livro.class);
+        Root<Livro> livro = query.from(Livro.class);
+        livro.fetch("autor");
+        Path<LocalDate> dataPublicacao = livro.get("dataPublicacao");
+        Path<UUID> id = livro.get("id");
+
+        List<Predicate> filtros = new ArrayList<>();
+        if (inicio != null) {
+            filtros.add(cb.greaterThanOrEqualTo(dataPublicacao, inicio));
+        }
+        if (fim != null) {
+            filtros.add(cb.lessThanOrEqualTo(dataPublicacao, fim));
+        }
+        if (ultimaData != null && ultimoId != null) { // dataPublicacao > ultimaData OR (dataPublicacao = ultimaData AND id > ultimoId)
+            filtros.add(cb.or(
+                    cb.greaterThan(dataPublicacao, ultimaData),
+                    cb.and(cb.equal(dataPublicacao, ultimaData), cb.greaterThan(id, ultimoId))));
+        }
+        query.select(livro)
+                .where(filtros.toArray(Predicate[]::new))
+                .orderBy(cb.asc(dataPublicacao), cb.asc(id));
+
+        return paginar(query, limite);
+    }
+
+    private List<Livro> paginar(CriteriaQuery<Livro> query, int limite) {
+        return entityManager.createQuery(query)
+                .setMaxResults(limite) // Vira "limit" no SQL, sem offset
+                .setHint(HibernateHints.HINT_READ_ONLY, true) // Livros e autores somente para leitura: sem snapshot para dirty checking
+                .getResultList();
+    }
+}
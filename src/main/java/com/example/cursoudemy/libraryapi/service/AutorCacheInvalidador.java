@@ -0,0 +1,87 @@
+package com.example.cursoudemy.libraryapi.service;
+
+import com.example.cursoudemy.libraryapi.config.CacheConfiguration;
+import com.example.cursoudemy.libraryapi.models.Autor;
+import com.example.cursoudemy.libraryapi.service.busca.MotorBuscaAutor;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invalida o cache de segundo nivel de Autor (e o AutorRespostaCache) depois das escritas feitas com SQL nativo
+ * (INSERT ... ON CONFLICT, UPDATE condicional e DELETE com CTE do AutorRepository).
+ * O Hibernate so invalida sozinho o que ele mesmo grava; estes comandos passam direto pelo banco.
+ * A invalidacao e precisa para a entidade (somente os ids alterados) e total para a regiao de consultas,
+ * pois nao ha como saber quais resultados de findByNome/findByNacionalidade incluem o autor alterado.
+ * O MotorBuscaAutor tambem e avisado dos ids criados, alterados ou excluidos.
+ */
+@Component
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class AutorCacheInvalidador {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final AutorRespostaCache respostaCache; // Respostas ja serializadas de GET /autores/{id}
+
+    private final MotorBuscaAutor motorBusca; // Indice de busca por substring (o indice em memoria precisa ser atualizado)
+
+    private final AtomicLong invalidacoes = new AtomicLong(); // Total de entradas invalidadas explicitamente
+
+    public void autorCriado(UUID id) { // Um autor novo nao esta no cache por id, mas pode entrar no resultado de consultas cacheadas
+        autoresCriados(List.of(id));
+    }
+
+    public void autoresCriados(Collection<UUID> ids) {
+        executarAposCommit(() -> {
+            invalidarConsultas();
+            motorBusca.autoresAlterados(ids);
+        });
+    }
+
+    public void autorAlterado(UUID id) { // Usado apos atualizar ou excluir um autor
+        autoresAlterados(List.of(id));
+    }
+
+    public void autoresAlterados(Collection<UUID> ids) {
+        executarAposCommit(() -> {
+            ids.forEach(id -> {
+                entityManagerFactory.getCache().evict(Autor.class, id); // Remove somente os autores alterados
+                respostaCache.invalidar(id); // E a resposta HTTP ja serializada deles
+            });
+            invalidacoes.addAndGet(ids.size());
+            invalidarConsultas();
+            motorBusca.autoresAlterados(ids);
+        });
+    }
+
+    public long getInvalidacoes() {
+        return invalidacoes.get();
+    }
+
+    private void invalidarConsultas() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(CacheConfiguration.REGIAO_CONSULTAS_AUTOR);
+        invalidacoes.incrementAndGet();
+    }
+
+    // Se houver transacao em andamento, espera o commit (antes dele outra requisicao poderia recarregar o valor antigo)
+    private void executarAposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else { // Os comandos nativos do repositorio ja fizeram commit na propria transacao
+            acao.run();
+        }
+    }
+}
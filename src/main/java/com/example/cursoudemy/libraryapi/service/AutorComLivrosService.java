@@ -0,0 +1,66 @@
+package com.example.cursoudemy.libraryapi.service;
+
+import com.example.cursoudemy.libraryapi.exceptions.OperacaoNaoPermitidaException;
+import com.example.cursoudemy.libraryapi.exceptions.RegistroDuplicadoException;
+import com.example.cursoudemy.libraryapi.models.Autor;
+import com.example.cursoudemy.libraryapi.models.Livro;
+import com.example.cursoudemy.libraryapi.repository.AutorRepository;
+import com.example.cursoudemy.libraryapi.repository.LivroRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Cadastro de um autor junto com os seus livros (POST /autores/com-livros), com a mesma atomicidade de
+ * TransacaoService.executarTransacao: se qualquer comando falhar, nem o autor nem os livros sao gravados.
+ * A diferenca e a quantidade de idas ao banco. executarTransacao chama saveAndFlush por entidade (um INSERT e um
+ * flush por linha); aqui o autor e os livros sao apenas persistidos (os ids UUIDv7 sao gerados na aplicacao, sem
+ * SELECT nem INSERT imediato) e o unico flush acontece no commit, quando o Hibernate envia os INSERTs ordenados por
+ * entidade (hibernate.order_inserts) em batches de hibernate.jdbc.batch_size: um comando para o autor e um para os livros.
+ */
+@Service
+public class AutorComLivrosService {
+
+    private static final String INDICE_UNICO_AUTOR = "ux_autor_nome_nascimento_nacionalidade";
+
+    private final AutorRepository autorRepository;
+
+    private final LivroRepository livroRepository;
+
+    private final AutorCacheInvalidador cacheInvalidador; // O novo autor pode fazer parte de consultas ja cacheadas
+
+    private final TransactionTemplate transactionTemplate; // O commit (e o flush) acontece dentro do execute, onde os erros sao traduzidos
+
+    public AutorComLivrosService(AutorRepository autorRepository, LivroRepository livroRepository,
+                                 AutorCacheInvalidador cacheInvalidador, PlatformTransactionManager transactionManager,
+                                 @Value("${libraryapi.sincronizacao.transacao-maxima:30}") int transacaoMaximaSegundos) {
+        this.autorRepository = autorRepository;
+        this.livroRepository = livroRepository;
+        this.cacheInvalidador = cacheInvalidador;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(transacaoMaximaSegundos); // Limite do atraso de GET /autores/alteracoes (AutorService.sincronizar)
+    }
+
+    public Autor cadastrar(Autor autor, List<Livro> livros) {
+        try {
+            return transactionTemplate.execute(status -> {
+                autorRepository.save(autor); // persist: versao nula indica entidade nova, o INSERT fica para o flush
+                livros.forEach(livro -> livro.setAutor(autor));
+                livroRepository.saveAll(livros); // persist de cada livro, ainda sem nenhum comando no banco
+                cacheInvalidador.autorCriado(autor.getId()); // Executado apos o commit
+                return autor;
+            }); // Commit: um flush com os INSERTs em batch; qualquer erro desfaz tudo
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violacao
+                    && INDICE_UNICO_AUTOR.equals(violacao.getConstraintName())) {
+                throw new RegistroDuplicadoException("Autor ja cadastrado no sistema.");
+            }
+            throw new OperacaoNaoPermitidaException("Autor e livros nao foram gravados: dados recusados pelo banco.");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.cursoudemy.libraryapi.service;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Servico responsavel pela exportacao completa da tabela autor em NDJSON (um JSON por linha).
+ * - A consulta usa uma expressao construtora (select new AutorDTO(...)), entao nenhuma entidade e criada e o
+ *   persistence context (cache de primeiro nivel) nao cresce durante a exportacao.
+ * - O fetch size faz o driver do PostgreSQL abrir um cursor no servidor e buscar as linhas em blocos, em vez de
+ *   carregar o resultado inteiro na memoria. Para isso a conexao precisa estar dentro de uma transacao (autocommit desligado).
+ * - Cada bloco lido e enviado ao cliente antes do proximo ser buscado, mantendo o uso de heap constante.
+ */
+@Service
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class AutorExportacaoService {
+
+    private static final String CONSULTA_EXPORTACAO = """
+            select new com.example.cursoudemy.libraryapi.controller.dto.AutorDTO(a.id, a.nome, a.dataNascimento, a.nacionalidade)
+            from Autor a
+            """;
+
+    @PersistenceContext // Injeta o EntityManager da transacao corrente
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper; // ObjectMapper configurado pelo Spring Boot (mesmo formato de datas da API)
+
+    @Value("${libraryapi.exportacao.fetch-size:1000}") // Quantidade de linhas buscadas por ida ao banco
+    private int fetchSize;
+
+    @Transactional(readOnly = true) // Sessao somente leitura: sem dirty checking e sem flush
+    public void exportarNdjson(OutputStream saida) throws IOException {
+        JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // Quem fecha a resposta e o Spring MVC
+        gerador.setRootValueSeparator(null); // O separador entre linhas e escrito manualmente abaixo
+
+        try (Stream<AutorDTO> autores = entityManager.createQuery(CONSULTA_EXPORTACAO, AutorDTO.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize) // Cursor no servidor, lido em blocos de fetchSize linhas
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) { // Stream sobre o cursor; precisa ser fechado para liberar o ResultSet
+            Iterator<AutorDTO> iterator = autores.iterator();
+            long linhas = 0;
+            while (iterator.hasNext()) {
+                gerador.writeObject(iterator.next()); // Serializa a linha direto no stream de saida
+                gerador.writeRaw('\n');
+                if (++linhas % fetchSize == 0) { // Ao fim de cada bloco lido, envia o que foi escrito ao cliente
+                    gerador.flush();
+                }
+            }
+        }
+        gerador.flush(); // Envia o ultimo bloco
+        gerador.close();
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.cursoudemy.libraryapi.service;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.ErroCampo;
+import com.example.cursoudemy.libraryapi.controller.dto.ResultadoImportacaoDTO;
+import com.example.cursoudemy.libraryapi.models.Autor;
+import com.example.cursoudemy.libraryapi.repository.AutorRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Servico de importacao em lote de autores (POST /autores/batch).
+ * Os autores recebidos sao processados em blocos de tamanhoLote linhas e cada bloco:
+ * - passa pelo Bean Validation linha a linha (erros viram 422 no formato ErroCampo, como no POST individual);
+ * - e conferido contra o banco com UMA consulta de duplicidade para o bloco inteiro, em vez de uma por autor;
+ * - e inserido em uma transacao propria, com os INSERTs agrupados pelo JDBC batching do Hibernate
+ *   (hibernate.jdbc.batch_size + reWriteBatchedInserts do driver do PostgreSQL).
+ */
+@Service
+public class AutorImportacaoService {
+
+    private static final ErroCampo LINHA_NULA = new ErroCampo("autor", "Linha sem autor (null).");
+
+    private final AutorRepository repository;
+
+    private final Validator validator; // Mesmo validador usado pelo @Valid dos controllers
+
+    private final AutorCacheInvalidador cacheInvalidador; // Avisa o motor de busca dos autores importados
+
+    private final TransactionTemplate transactionTemplate; // Uma transacao por bloco: um erro nao desfaz os blocos anteriores
+
+    @PersistenceContext // Injeta o EntityManager da transacao corrente
+    private EntityManager entityManager;
+
+    @Value("${libraryapi.importacao.tamanho-lote:500}") // Quantidade de autores validados e inseridos por transacao
+    private int tamanhoLote;
+
+    public AutorImportacaoService(AutorRepository repository, Validator validator, AutorCacheInvalidador cacheInvalidador,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${libraryapi.sincronizacao.transacao-maxima:30}") int transacaoMaximaSegundos) {
+        this.repository = repository;
+        this.validator = validator;
+        this.cacheInvalidador = cacheInvalidador;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(transacaoMaximaSegundos); // Limite do atraso de GET /autores/alteracoes (AutorService.sincronizar)
+    }
+
+    // Importa todos os autores do iterator (array JSON ou NDJSON ja sendo lido do corpo da requisicao).
+    // Se o corpo fica mal formado no meio, os blocos anteriores ja foram confirmados: as linhas lidas ate o erro
+    // tambem sao importadas e o erro de leitura volta em Importacao.erroLeitura
+    public Importacao importar(Iterator<AutorDTO> autores) {
+        List<ResultadoImportacaoDTO> resultados = new ArrayList<>();
+        List<AutorDTO> lote = new ArrayList<>(tamanhoLote);
+        String erroLeitura = null;
+        try {
+            while (autores.hasNext()) { // Le o corpo aos poucos: no maximo um bloco fica em memoria
+                lote.add(autores.next());
+                if (lote.size() == tamanhoLote) {
+                    resultados.addAll(importarLote(lote, resultados.size()));
+                    lote.clear();
+                }
+            }
+        } catch (RuntimeException e) { // O MappingIterator embrulha o erro de parse do Jackson (IOException) em RuntimeException
+            if (!(e.getCause() instanceof IOException)) {
+                throw e;
+            }
+            erroLeitura = "Corpo da importacao mal formado: " + e.getCause().getMessage();
+        }
+        if (!lote.isEmpty()) { // Ultimo bloco, possivelmente incompleto
+            resultados.addAll(importarLote(lote, resultados.size()));
+        }
+        return new Importacao(resultados, erroLeitura);
+    }
+
+    // Um resultado por linha lida; erroLeitura nulo quando o corpo foi lido ate o fim
+    public record Importacao(List<ResultadoImportacaoDTO> resultados, String erroLeitura) {
+        public boolean corpoMalFormado() {
+            return erroLeitura != null;
+        }
+    }
+
+    private List<ResultadoImportacaoDTO> importarLote(List<AutorDTO> lote, int primeiraLinha) {
+        ResultadoImportacaoDTO[] resultados = new ResultadoImportacaoDTO[lote.size()];
+        List<Integer> linhasValidas = new ArrayList<>();
+
+        for (int i = 0; i < lote.size(); i++) { // 1) Bean Validation de cada linha
+            if (lote.get(i) == null) { // Elemento null no array (ou linha "null" no NDJSON): o validador nao aceita null
+                resultados[i] = ResultadoImportacaoDTO.invalido(primeiraLinha + i, List.of(LINHA_NULA));
+                continue;
+            }
+            Set<ConstraintViolation<AutorDTO>> violacoes = validator.validate(lote.get(i));
+            if (violacoes.isEmpty()) {
+                linhasValidas.add(i);
+            } else {
+                List<ErroCampo> erros = violacoes.stream()
+                        .map(v -> new ErroCampo(v.getPropertyPath().toString(), v.getMessage()))
+                        .collect(Collectors.toList());
+                resultados[i] = ResultadoImportacaoDTO.invalido(primeiraLinha + i, erros);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<ChaveAutor> existentes = buscarExistentes(lote, linhasValidas); // 2) Uma consulta para o bloco inteiro
+                List<Autor> novos = new ArrayList<>();
+                List<Integer> linhasNovas = new ArrayList<>();
+                for (Integer i : linhasValidas) {
+                    AutorDTO dto = lote.get(i);
+                    if (!existentes.add(ChaveAutor.de(dto))) { // Ja existe no banco ou repetido neste mesmo bloco
+                        resultados[i] = ResultadoImportacaoDTO.conflito(primeiraLinha + i, "Autor ja cadastrado no sistema.");
+                        continue;
+                    }
+                    novos.add(dto.mapearParaAutor());
+                    linhasNovas.add(i);
+                }
+
+                repository.saveAll(novos); // 3) Persist sem flush; o id (UUID) e gerado na aplicacao
+                repository.flush(); // Envia os INSERTs agrupados em batches de hibernate.jdbc.batch_size (erros traduzidos pelo Spring)
+                for (int j = 0; j < novos.size(); j++) {
+                    int i = linhasNovas.get(j);
+                    resultados[i] = ResultadoImportacaoDTO.criado(primeiraLinha + i, novos.get(j).getId());
+                }
+                entityManager.clear(); // Libera as entidades do bloco do persistence context
+                cacheInvalidador.autoresCriados(novos.stream().map(Autor::getId).toList()); // Executado apos o commit do bloco
+            });
+        } catch (DataIntegrityViolationException e) { // Outro processo cadastrou um dos autores entre a consulta e o INSERT
+            for (Integer i : linhasValidas) {
+                resultados[i] = ResultadoImportacaoDTO.conflito(primeiraLinha + i,
+                        "Conflito ao gravar o bloco; nenhum autor deste bloco foi cadastrado, reenvie as linhas.");
+            }
+        }
+
+        return List.of(resultados);
+    }
+
+    // Busca os autores ja cadastrados que coincidem com alguma linha valida do bloco
+    private Set<ChaveAutor> buscarExistentes(List<AutorDTO> lote, List<Integer> linhasValidas) {
+        if (linhasValidas.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<String> nomes = new HashSet<>();
+        Set<LocalDate> datas = new HashSet<>();
+        Set<String> nacionalidades = new HashSet<>();
+        for (Integer i : linhasValidas) {
+            AutorDTO dto = lote.get(i);
+            nomes.add(dto.nome());
+            datas.add(dto.dataNascimento());
+            nacionalidades.add(dto.nacionalidade());
+        }
+
+        return repository.buscarCandidatosDuplicados(nomes, datas, nacionalidades)
+                .stream()
+                .map(ChaveAutor::de)
+                .collect(Collectors.toCollection(HashSet::new)); // Conjunto mutavel: recebe tambem as chaves do proprio bloco
+    }
+
+    // Chave de duplicidade de um autor, as colunas do indice unico ux_autor_nome_nascimento_nacionalidade
+    private record ChaveAutor(String nome, LocalDate dataNascimento, String nacionalidade) {
+        static ChaveAutor de(AutorDTO dto) {
+            return new ChaveAutor(dto.nome(), dto.dataNascimento(), dto.nacionalidade());
+        }
+
+        static ChaveAutor de(Autor autor) {
+            return new ChaveAutor(autor.getNome(), autor.getDataNascimento(), autor.getNacionalidade());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.cursoudemy.libraryapi.service;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache das respostas ja serializadas de GET /autores/{id}.
+ * Guarda os bytes do JSON do AutorDTO junto com a ETag, entao um GET repetido (ou um If-None-Match valido)
+ * e respondido sem ir ao banco e sem passar pelo Jackson.
+ * As entradas sao removidas pelo AutorCacheInvalidador quando o autor e alterado ou excluido pelo AutorService.
+ * Para que um GET que leu o banco antes de uma alteracao nao grave a versao antiga depois da invalidacao, cada id
+ * pertence a uma faixa com um contador de geracao: o GET le a geracao antes da consulta e so armazena se ela nao mudou.
+ */
+@Component
+public class AutorRespostaCache {
+
+    // Corpo JSON pronto para ser enviado e a ETag correspondente
+    public record RespostaCacheada(byte[] json, String etag) {
+    }
+
+    private final Cache<UUID, RespostaCacheada> cache;
+
+    private static final int FAIXAS = 1024; // Contadores de geracao fixos: ids de uma mesma faixa compartilham o contador
+
+    private final AtomicLongArray geracoes = new AtomicLongArray(FAIXAS); // Incrementado a cada invalidacao
+
+    private final ObjectMapper objectMapper; // ObjectMapper configurado pelo Spring Boot (mesmo JSON que o controller geraria)
+
+    public AutorRespostaCache(ObjectMapper objectMapper,
+                              @Value("${libraryapi.cache-resposta.tamanho-maximo:10000}") long tamanhoMaximo,
+                              @Value("${libraryapi.cache-resposta.expiracao:10m}") Duration expiracao) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo) // Limita a memoria usada pelas respostas
+                .expireAfterWrite(expiracao) // Limita por quanto tempo uma entrada pode sobreviver a uma escrita fora do AutorService
+                .build();
+    }
+
+    public Optional<RespostaCacheada> buscar(UUID id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    // Deve ser lida antes de consultar o banco e repassada ao armazenar
+    public long geracao(UUID id) {
+        return geracoes.get(faixa(id));
+    }
+
+    // Serializa uma unica vez e guarda os bytes, desde que o autor nao tenha sido invalidado depois de geracaoLida.
+    // O compute trava a entrada do id: ou ele ve a geracao ja incrementada e nao grava, ou o remove do invalidar
+    // (feito depois do incremento) espera e apaga o que foi gravado.
+    public RespostaCacheada armazenar(UUID id, AutorDTO dto, String etag, long geracaoLida) {
+        try {
+            RespostaCacheada resposta = new RespostaCacheada(objectMapper.writeValueAsBytes(dto), etag);
+            cache.asMap().compute(id, (chave, atual) -> geracao(chave) == geracaoLida ? resposta : atual);
+            return resposta; // Mesmo quando nao guardada, e a versao lida por este GET
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o autor " + id, e);
+        }
+    }
+
+    public void invalidar(UUID id) {
+        geracoes.incrementAndGet(faixa(id)); // Antes da remocao: um GET em andamento nao grava mais a versao antiga
+        cache.asMap().remove(id);
+    }
+
+    private static int faixa(UUID id) {
+        return Math.floorMod(id.hashCode(), FAIXAS);
+    }
+}
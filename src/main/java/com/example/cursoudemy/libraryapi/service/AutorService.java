@@ -1,18 +1,42 @@
 package com.example.cursoudemy.libraryapi.service;
 
+import com.example.cursoudemy.libraryapi.controller.dto.AlteracaoAutorDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.AutorComLivrosDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.AutorResumoDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.LivroResumoDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.ResultadoBuscaAutorDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.ResultadoExclusaoDTO;
 import com.example.cursoudemy.libraryapi.exceptions.OperacaoNaoPermitidaException;
+import com.example.cursoudemy.libraryapi.exceptions.RegistroDuplicadoException;
+import com.example.cursoudemy.libraryapi.exceptions.RegistroNaoEncontradoException;
+import com.example.cursoudemy.libraryapi.exceptions.VersaoDesatualizadaException;
 import com.example.cursoudemy.libraryapi.models.Autor;
+import com.example.cursoudemy.libraryapi.models.id.GeradorUuidV7;
 import com.example.cursoudemy.libraryapi.repository.AutorRepository;
 import com.example.cursoudemy.libraryapi.repository.LivroRepository;
-import com.example.cursoudemy.libraryapi.validator.AutorValidator;
+import com.example.cursoudemy.libraryapi.service.busca.MotorBuscaAutor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 // Servico para gerenciar operacoes relacionadas a Autor
 @Service
@@ -21,37 +45,155 @@ public class AutorService {
     // Injeta o AutorRepository via construtor
     private final AutorRepository repository;
 
-    private final AutorValidator validator;
-
     private final LivroRepository livroRepository;
 
+    private final AutorCacheInvalidador cacheInvalidador; // Invalida o cache de segundo nivel apos os comandos nativos
+
+    private final MotorBuscaAutor motorBusca; // Busca por trecho do nome/nacionalidade com indice de trigramas
+
+    @PersistenceContext // Injeta o EntityManager da transacao corrente
+    private EntityManager entityManager;
+
+    // Timeout (segundos) das transacoes que gravam autores. Junto com a margem do relogio forma o atraso de
+    // GET /autores/alteracoes: nenhuma transacao confirma uma data de alteracao mais antiga que esse atraso
+    @Value("${libraryapi.sincronizacao.transacao-maxima:30}")
+    private int transacaoMaximaSegundos;
+
+    @Value("${libraryapi.sincronizacao.margem-relogio:5s}") // Diferenca tolerada entre os relogios das instancias e do banco
+    private Duration margemRelogio;
+
+    private static final String MENSAGEM_AUTOR_COM_LIVROS = "Não é permitido exluir um Autor que possui livros cadastrados!";
+
     // Salva um autor no banco de dados
+    // A transacao comeca antes de "agora" ser lido e tem timeout: a data gravada e confirmada em no maximo transacao-maxima
+    @Transactional(timeoutString = "${libraryapi.sincronizacao.transacao-maxima:30}")
     public Autor salvar(Autor autor) {
-        validator.validar(autor);  // Valida o autor antes de salvar
-        // Usa o repositório para salvar o autor e retorna a entidade salva
-        return repository.save(autor);
+        // Em vez de validar (SELECT) e depois salvar (INSERT), faz um unico INSERT ... ON CONFLICT DO NOTHING:
+        // o indice unico decide a duplicidade, o que evita uma ida ao banco e a corrida entre dois POSTs iguais
+        LocalDateTime agora = LocalDateTime.now(); // Mesmo relogio usado pelo AuditingEntityListener
+        Optional<UUID> idInserido = repository.inserirSeNaoExistir(
+                GeradorUuidV7.gerar(), // O id e gerado na aplicacao, o mesmo gerador do @UuidV7 da entidade
+                autor.getNome(),
+                autor.getDataNascimento(),
+                autor.getNacionalidade(),
+                agora);
+        if (idInserido.isEmpty()) { // Nenhuma linha retornada: o indice unico acusou conflito
+            throw new RegistroDuplicadoException("Autor ja cadastrado no sistema.");
+        }
+
+        cacheInvalidador.autorCriado(idInserido.get()); // O novo autor pode fazer parte de consultas ja cacheadas
+        autor.setId(idInserido.get()); // Preenche a entidade como o save() faria
+        autor.setDataCadastro(agora);
+        autor.setDataAtualizacao(agora);
+        return autor;
     }
 
-    // Atualizar um autor já existente no banco de dados
-    public void atualizar(Autor autor) {
-        if (autor.getId() == null) { // Verifica se o ID do autor é nulo
+    // Atualizar um autor já existente no banco de dados, retornando os dados com a nova versao e data de atualizacao
+    // versaoEsperada vem do If-Match; EtagAutor.QUALQUER_VERSAO (negativa) atualiza sem conferir a versao
+    @Transactional(timeoutString = "${libraryapi.sincronizacao.transacao-maxima:30}")
+    public Autor atualizar(UUID id, Autor dados, long versaoEsperada) {
+        if (id == null) { // Verifica se o ID do autor é nulo
             throw new IllegalArgumentException("O ID do autor não pode ser nulo para atualização.");  // Lança uma exceção se for nulo
         }
-        validator.validar(autor);  // Valida o autor antes de atualizar
-        // Usa o repositório para atualizar o autor
-        repository.save(autor);
+
+        Optional<Long> novaVersao;
+        LocalDateTime agora = LocalDateTime.now(); // Mesmo relogio usado pelo AuditingEntityListener
+        try {
+            // Um unico UPDATE condicional: confere a versao e a duplicidade (antes um SELECT do AutorValidator) no mesmo comando
+            novaVersao = repository.atualizarSeVersaoConferir(
+                    id,
+                    dados.getNome(),
+                    dados.getDataNascimento(),
+                    dados.getNacionalidade(),
+                    agora,
+                    versaoEsperada);
+        } catch (DataIntegrityViolationException e) { // Outro autor igual foi gravado ao mesmo tempo (indice unico)
+            throw new RegistroDuplicadoException("Autor ja cadastrado no sistema.");
+        }
+        if (novaVersao.isPresent()) {
+            cacheInvalidador.autorAlterado(id); // Remove a versao antiga do cache de segundo nivel e das respostas
+            dados.setId(id);
+            dados.setVersao(novaVersao.get());
+            dados.setDataAtualizacao(agora);
+            return dados;
+        }
+
+        // Nenhuma linha alterada: uma consulta extra, apenas neste caminho de erro, descobre o motivo
+        Optional<Long> versaoAtual = repository.buscarVersao(id);
+        if (versaoAtual.isEmpty()) {
+            throw new RegistroNaoEncontradoException("Autor nao encontrado.");
+        }
+        if (versaoEsperada >= 0 && versaoAtual.get() != versaoEsperada) {
+            throw new VersaoDesatualizadaException("O autor foi alterado por outra requisicao; obtenha a versao atual e tente novamente.");
+        }
+        throw new RegistroDuplicadoException("Autor ja cadastrado no sistema.");
     }
 
     public Optional<Autor> obterPorId(UUID id) {
-        return repository.findById(id);
+        return repository.findById(id); // Busca por id: atendida pelo cache de segundo nivel (regiao "autor") sem ir ao banco
     }  // Obtém um autor pelo ID
 
-    public void deletar(Autor autor) {
-        if (possuiLivro(autor)) { // Verifica se o autor possui livros cadastrados
-            throw new OperacaoNaoPermitidaException("Não é permitido exluir um Autor que possui livros cadastrados!");
+    @Transactional(timeoutString = "${libraryapi.sincronizacao.transacao-maxima:30}") // A lapide recebe a data do inicio da transacao
+    public void deletar(UUID id) { // Deleta um autor do banco de dados com um unico DELETE condicional
+        ResultadoExclusaoDTO resultado = deletarEmLote(List.of(id)).get(0);
+        if (resultado.status() == HttpStatus.NOT_FOUND.value()) { // Nenhuma linha encontrada para o id
+            throw new RegistroNaoEncontradoException(resultado.mensagem());
+        }
+        if (resultado.status() == HttpStatus.BAD_REQUEST.value()) { // Verifica se o autor possui livros cadastrados
+            throw new OperacaoNaoPermitidaException(resultado.mensagem());
+        }
+    }
+
+    // Busca varios autores por id de uma vez (POST /autores/lookup), com um resultado por id na ordem recebida.
+    // O multiLoad do Hibernate procura primeiro na sessao e no cache de segundo nivel (regiao de Autor) e busca os
+    // restantes com um unico comando "where id = any(?)" (batch do tamanho da lista), em vez de um findById por id.
+    @Transactional(readOnly = true)
+    public List<ResultadoBuscaAutorDTO> buscarPorIds(List<UUID> ids) {
+        List<UUID> distintos = List.copyOf(new LinkedHashSet<>(ids)); // Ids repetidos sao buscados uma unica vez
+        Map<UUID, AutorDTO> encontrados = new HashMap<>();
+        entityManager.unwrap(Session.class)
+                .byMultipleIds(Autor.class)
+                .with(CacheMode.NORMAL) // Le e alimenta o cache de segundo nivel
+                .withBatchSize(distintos.size()) // Todos os ids que faltarem no cache em um unico comando
+                .enableOrderedReturn(false) // A ordem e refeita abaixo; sem ela o Hibernate nao precisa reordenar a lista
+                .multiLoad(distintos)
+                .stream()
+                .filter(Objects::nonNull) // Ids inexistentes
+                .forEach(autor -> encontrados.put(autor.getId(),
+                        new AutorDTO(autor.getId(), autor.getNome(), autor.getDataNascimento(), autor.getNacionalidade())));
+
+        return ids.stream() // Mantem a ordem (e as repeticoes) da requisicao
+                .map(id -> {
+                    AutorDTO autor = encontrados.get(id);
+                    return autor != null ? ResultadoBuscaAutorDTO.encontrado(autor) : ResultadoBuscaAutorDTO.naoEncontrado(id);
+                })
+                .toList();
+    }
+
+    @Transactional(timeoutString = "${libraryapi.sincronizacao.transacao-maxima:30}")
+    public List<ResultadoExclusaoDTO> deletarEmLote(List<UUID> ids) { // Deleta varios autores com um unico comando, com um resultado por id
+        Map<UUID, Boolean> excluidos = new HashMap<>(); // id -> excluido (true) ou mantido por possuir livros (false)
+        try {
+            repository.excluirSemLivros(new LinkedHashSet<>(ids)) // Ids repetidos sao enviados uma unica vez
+                    .forEach(r -> excluidos.put(r.getId(), r.getExcluido()));
+        } catch (DataIntegrityViolationException e) { // Um livro foi cadastrado para um dos autores durante o DELETE
+            throw new OperacaoNaoPermitidaException(MENSAGEM_AUTOR_COM_LIVROS);
         }
-        repository.delete(autor);
-    }  // Deleta um autor do banco de dados
+        cacheInvalidador.autoresAlterados(excluidos.entrySet().stream() // Remove do cache somente os autores realmente excluidos
+                .filter(Map.Entry::getValue)
+                .map(Map.Entry::getKey)
+                .toList());
+
+        return ids.stream() // Mantem a ordem (e as repeticoes) da requisicao
+                .map(id -> {
+                    Boolean excluido = excluidos.get(id);
+                    if (excluido == null) {
+                        return ResultadoExclusaoDTO.naoEncontrado(id);
+                    }
+                    return excluido ? ResultadoExclusaoDTO.excluido(id) : ResultadoExclusaoDTO.possuiLivros(id, MENSAGEM_AUTOR_COM_LIVROS);
+                })
+                .collect(Collectors.toList());
+    }
 
     public List<Autor> pesquisa(String nome, String nacionalidade) {  // Pesquisa autores por nome e/ou nacionalidade
         if (nome != null && nacionalidade != null) {  // Se ambos os parâmetros forem fornecidos
@@ -69,28 +211,67 @@ public class AutorService {
         return repository.findAll();  // Se nenhum parâmetro for fornecido, retorna todos os autores
     }
 
-    public List<Autor> pesquisaByExample(String nome, String nacionalidade) { // Pesquisa autores usando Example para busca dinâmica
-        var autor = new Autor(); // Cria uma nova instância de Autor para servir como exemplo de busca
-        autor.setNome(nome);
-        autor.setNacionalidade(nacionalidade);
-
-        ExampleMatcher matcher = ExampleMatcher // Constrói o ExampleMatcher para personalizar a busca
-                .matching() // Inicia a construção do matcher
-                .withIgnoreNullValues() // Ignora valores nulos nos campos do exemplo, buscando apenas o desejado pelo cliente
-                .withIgnoreCase() // Ignora diferenças entre maiúsculas e minúsculas, eliminando este fator da busca
-                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING) // Define o tipo de correspondência para strings (padrão é 'CONTAINING', que busca por letras entre palavras, mas pode ser tambem 'STARTING', sendo a busca por itens que iniciem com a string digitada, 'ENDING', os que finalizam com a string digitada ou 'EXACT', buscando exatamente a string digitada)
-                .withIgnorePaths("id", "dataNascimento"); // Ignora os campos 'id' e 'dataNascimento' na busca ou os campos que nao serao usados na busca
-        Example<Autor> autorExample = Example.of(autor, matcher); // Cria o Example<Autor> com a entidade de exemplo e o matcher personalizado
-        return repository.findAll(autorExample); // Realiza a busca dinâmica usando o Example
-
-        /**
-         * Neste código acima, criamos um ExampleMatcher personalizado que:
-         * - Ignora valores nulos, permitindo buscas parciais.
-         * - Ignora diferenças entre maiúsculas e minúsculas.
-         * - Usa correspondência "CONTAINING" para strings, permitindo buscas por substrings.
-         * Em seguida, criamos um Example<Autor> com a entidade de exemplo e o matcher, e usamos repository.findAll(autorExample) para realizar a busca dinâmica.
-         * A necessidade do Example surge quando queremos permitir buscas flexíveis e dinâmicas, onde os critérios podem variar conforme a entrada do usuário.
-         */
+    @Transactional(readOnly = true) // Sessao somente leitura: o Hibernate nao faz flush nem dirty checking
+    public List<AutorDTO> pesquisaPaginada(String nome, String nacionalidade, String ultimoNome, UUID ultimoId, int limite) { // Pesquisa uma pagina de autores por keyset
+        if (nome == null && nacionalidade == null) { // Sem filtros o indice (nome, id) atende a pagina diretamente
+            return repository.pesquisarPagina(null, null, ultimoNome, ultimoId, limite)
+                    .stream()
+                    .map(autor -> new AutorDTO(autor.getId(), autor.getNome(), autor.getDataNascimento(), autor.getNacionalidade()))
+                    .toList();
+        }
+        return motorBusca.pesquisar(nome, nacionalidade, ultimoNome, ultimoId, limite); // Filtros por "contem", ignorando caixa e acentos, limitado a uma pagina
+    }
+
+    @Transactional(readOnly = true)
+    public List<AutorResumoDTO> resumoPaginado(String ultimoNome, UUID ultimoId, int limite) { // Quantidade, ultima publicacao e valor dos livros de uma pagina de autores
+        if (ultimoNome == null || ultimoId == null) { // Primeira pagina: chave menor que qualquer (nome, id) existente
+            ultimoNome = "";
+            ultimoId = new UUID(0, 0); // Menor UUID possivel
+        }
+        return repository.resumirPagina(ultimoNome, ultimoId, limite) // Um unico comando em vez de existsByAutor/findByAutor por autor
+                .stream()
+                .map(AutorResumoDTO::de)
+                .toList();
+    }
+
+    // Autores alterados ou excluidos depois da chave (desde, ultimoId), em ordem de (data, id).
+    // As datas sao definidas antes do commit, entao uma transacao que ainda nao terminou pode confirmar uma data menor
+    // que a de outra ja visivel. Por isso so linhas mais antigas que transacao-maxima + margem-relogio sao entregues.
+    // Limite: isso so vale porque toda transacao que grava autores (salvar, atualizar, deletar, os blocos da importacao
+    // e POST /autores/com-livros) tem timeout de transacao-maxima, e os relogios das instancias (data_atualizacao) e do
+    // banco (data_exclusao) diferem em menos que margem-relogio. Uma nova escrita de autores precisa do mesmo timeout.
+    @Transactional(readOnly = true)
+    public List<AlteracaoAutorDTO> sincronizar(LocalDateTime desde, UUID ultimoId, int limite) {
+        LocalDateTime ate = LocalDateTime.now().minusSeconds(transacaoMaximaSegundos).minus(margemRelogio);
+        return repository.buscarAlteracoes(desde, ultimoId != null ? ultimoId : new UUID(0, 0), ate, limite)
+                .stream()
+                .map(AlteracaoAutorDTO::de)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<AutorComLivrosDTO> carregarLivros(List<AutorDTO> autores) { // Completa uma pagina de autores com os seus livros
+        if (autores.isEmpty()) {
+            return List.of();
+        }
+        // Os livros de todos os autores da pagina em uma unica consulta "in (...)", agrupados em memoria,
+        // em vez de um livroRepository.findByAutor por autor
+        Map<UUID, List<LivroResumoDTO>> livrosPorAutor = livroRepository
+                .buscarResumoPorAutores(autores.stream().map(AutorDTO::id).toList())
+                .stream()
+                .map(LivroResumoDTO::de)
+                .collect(Collectors.groupingBy(LivroResumoDTO::idAutor)); // Cada lista mantem a ordem da consulta (titulo, id)
+        return autores.stream()
+                .map(autor -> AutorComLivrosDTO.de(autor, livrosPorAutor.getOrDefault(autor.id(), List.of())))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public long estimarTotal(String nome, String nacionalidade) { // Estimativa do total de autores para a pesquisa
+        if (nome == null && nacionalidade == null) {
+            return repository.estimarTotal(null, null); // Estatistica do planner, sem varrer a tabela
+        }
+        return motorBusca.contar(nome, nacionalidade);
     }
 
     public boolean possuiLivro(Autor autor) { // Verifica se o autor possui livros cadastrados
@@ -0,0 +1,98 @@
+package com.example.cursoudemy.libraryapi.service;
+
+import com.example.cursoudemy.libraryapi.exceptions.ServicoIndisponivelException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita quantas transacoes executam ao mesmo tempo, com uma permissao por conexao do pool do Hikari.
+ * Com threads virtuais o Tomcat aceita milhares de requisicoes simultaneas; sem o limite todas disputariam as poucas
+ * conexoes dentro do Hikari, ocupando o pool com esperas e estourando o connectionTimeout. Com o limite, o excesso
+ * espera aqui (threads virtuais esperando sao baratas) e, apos esperaMaxima, recebe 503 em vez de um erro de conexao.
+ * A permissao e obtida pelo gerenciador de transacoes (LimitadorConexoesConfiguration) antes de a transacao pegar
+ * uma conexao, entao vale para todos os servicos, com @Transactional ou TransactionTemplate, em requisicoes,
+ * exportacoes assincronas e tarefas agendadas. Transacoes aninhadas na mesma thread reutilizam a permissao ja obtida.
+ */
+public class LimitadorConexoes {
+
+    private final SemaforoRedimensionavel permissoes;
+
+    private volatile int limite; // Alterado junto com o pool pelo endpoint /actuator/pool
+
+    private final long esperaMaximaNanos;
+
+    private final ThreadLocal<int[]> transacoesAbertas = ThreadLocal.withInitial(() -> new int[1]); // Por thread: so a primeira obtem permissao
+
+    public LimitadorConexoes(int limite, Duration esperaMaxima) {
+        this.permissoes = new SemaforoRedimensionavel(limite); // Justo: quem espera ha mais tempo e atendido primeiro
+        this.limite = limite;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+    }
+
+    // Chamado ao iniciar uma transacao fisica; cada chamada bem-sucedida deve ser seguida de um liberar() na mesma thread
+    public void obter() {
+        int[] abertas = transacoesAbertas.get();
+        if (abertas[0] > 0) { // Transacao aninhada (REQUIRES_NEW): a thread ja ocupa uma permissao
+            abertas[0]++;
+            return;
+        }
+        boolean obtida;
+        try {
+            obtida = permissoes.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicoIndisponivelException("Requisicao interrompida aguardando uma conexao com o banco.");
+        }
+        if (!obtida) {
+            throw new ServicoIndisponivelException("Servidor ocupado: nenhuma conexao com o banco liberada a tempo, tente novamente.");
+        }
+        abertas[0] = 1;
+    }
+
+    // Chamado ao terminar a transacao fisica (commit ou rollback). A permissao volta quando a mais externa termina
+    public void liberar() {
+        int[] abertas = transacoesAbertas.get();
+        if (--abertas[0] == 0) {
+            transacoesAbertas.remove();
+            permissoes.release();
+        }
+    }
+
+    // Acompanha o novo maximumPoolSize. Ao diminuir, as chamadas em andamento terminam normalmente e as
+    // permissoes excedentes deixam de existir conforme sao devolvidas
+    public synchronized void redimensionar(int novoLimite) {
+        int diferenca = novoLimite - limite;
+        if (diferenca > 0) {
+            permissoes.release(diferenca);
+        } else if (diferenca < 0) {
+            permissoes.reducePermits(-diferenca);
+        }
+        limite = novoLimite;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEmUso() {
+        return limite - permissoes.availablePermits();
+    }
+
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    // Semaphore.reducePermits e protegido; esta subclasse apenas o torna acessivel
+    private static class SemaforoRedimensionavel extends Semaphore {
+        SemaforoRedimensionavel(int permissoes) {
+            super(permissoes, true);
+        }
+
+        @Override
+        protected void reducePermits(int reducao) {
+            super.reducePermits(reducao);
+        }
+    }
+}
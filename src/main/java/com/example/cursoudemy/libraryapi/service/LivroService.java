@@ -0,0 +1,30 @@
+package com.example.cursoudemy.libraryapi.service;
+
+import com.example.cursoudemy.libraryapi.controller.dto.LivroDTO;
+import com.example.cursoudemy.libraryapi.repository.LivroRepository;
+import com.example.cursoudemy.libraryapi.repository.LivroRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+// Servico para as consultas do catalogo de livros
+@Service
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class LivroService {
+
+    private final LivroRepository repository;
+
+    @Transactional(readOnly = true) // Sessao somente leitura: o Hibernate nao faz flush nem dirty checking
+    public List<LivroDTO> pesquisaPorTitulo(LivroRepositoryCustom.ChaveTitulo depoisDe, int limite) { // Pagina ordenada por (titulo, preco, id)
+        return repository.pesquisarPaginaPorTitulo(depoisDe, limite).stream().map(LivroDTO::de).toList(); // Mapeia dentro da sessao
+    }
+
+    @Transactional(readOnly = true)
+    public List<LivroDTO> pesquisaPorDataPublicacao(LocalDate inicio, LocalDate fim, LocalDate ultimaData, UUID ultimoId, int limite) { // Pagina ordenada por (dataPublicacao, id)
+        return repository.pesquisarPaginaPorDataPublicacao(inicio, fim, ultimaData, ultimoId, limite).stream().map(LivroDTO::de).toList();
+    }
+}
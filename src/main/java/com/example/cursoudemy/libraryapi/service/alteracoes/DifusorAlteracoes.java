@@ -0,0 +1,209 @@
+package com.example.cursoudemy.libraryapi.service.alteracoes;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AlteracaoDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantem as conexoes SSE de GET /alteracoes e entrega a cada uma os eventos do outbox na ordem de posicao.
+ * O RelayAlteracoes nunca escreve na conexao: ele so coloca os eventos na fila limitada de cada assinante, e uma
+ * tarefa propria do assinante esvazia a fila. Um cliente lento atrasa apenas a si mesmo; se a fila dele enche,
+ * a conexao e encerrada e o cliente reconecta com Last-Event-ID, recebendo o que perdeu a partir do banco.
+ * Um cliente que informa a ultima posicao recebida primeiro recebe do banco os eventos perdidos e so depois passa a
+ * receber os da fila. Se essa posicao ja foi apagada pela retencao, ele recebe um evento "reinicio" e deve recarregar tudo.
+ */
+@Service
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class DifusorAlteracoes implements DisposableBean {
+
+    private final EventosAlteracao eventos;
+
+    // Uma tarefa por assinante; threads virtuais porque quase todo o tempo elas esperam pela rede
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    @Value("${libraryapi.alteracoes.timeout-sse:30m}") // Apos este tempo a conexao e encerrada e o cliente reconecta
+    private Duration timeout;
+
+    @Value("${libraryapi.alteracoes.tamanho-lote:500}") // Eventos lidos do banco por consulta no reenvio
+    private int tamanhoLote;
+
+    @Value("${libraryapi.alteracoes.fila-assinante:1000}") // Eventos pendentes por cliente antes de ele ser desconectado
+    private int tamanhoFila;
+
+    // ultimaPosicaoRecebida nula: o cliente so recebe as alteracoes a partir de agora
+    public SseEmitter conectar(Long ultimaPosicaoRecebida) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        boolean reenviar = ultimaPosicaoRecebida != null;
+        Assinante assinante = new Assinante(emitter, new ArrayBlockingQueue<>(tamanhoFila),
+                reenviar ? ultimaPosicaoRecebida : eventos.ultimaPosicao(), !reenviar);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> assinantes.remove(assinante));
+        emitter.onError(erro -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+        if (reenviar) {
+            assinante.agendado.set(true); // A tarefa de reenvio esvazia a fila quando terminar
+            envios.execute(() -> reenviar(assinante));
+        }
+        return emitter;
+    }
+
+    // Chamado pelo RelayAlteracoes com os eventos recem-numerados, em ordem de posicao. Nao bloqueia
+    void publicar(List<AlteracaoDTO> alteracoes) {
+        assinantes.forEach(assinante -> {
+            if (!assinante.aoVivo) { // Ainda reenviando: estes eventos tambem serao lidos do banco
+                return;
+            }
+            for (AlteracaoDTO alteracao : alteracoes) {
+                if (!assinante.fila.offer(alteracao)) { // Cliente nao acompanha o ritmo: desconecta em vez de acumular
+                    encerrar(assinante);
+                    return;
+                }
+            }
+            agendar(assinante);
+        });
+    }
+
+    public int getAssinantes() {
+        return assinantes.size();
+    }
+
+    @Override
+    public void destroy() {
+        envios.shutdownNow();
+    }
+
+    private void agendar(Assinante assinante) {
+        if (assinante.agendado.compareAndSet(false, true)) { // No maximo uma tarefa por assinante: mantem a ordem
+            envios.execute(() -> drenar(assinante));
+        }
+    }
+
+    private void drenar(Assinante assinante) {
+        do {
+            AlteracaoDTO alteracao;
+            while (!assinante.encerrado && (alteracao = assinante.fila.poll()) != null) {
+                if (!assinante.enviar(alteracao)) {
+                    assinantes.remove(assinante);
+                    return;
+                }
+            }
+            assinante.agendado.set(false);
+            // Um evento colocado depois do poll vazio e antes do set(false) nao agendou tarefa: confere de novo
+        } while (!assinante.fila.isEmpty() && assinante.agendado.compareAndSet(false, true));
+    }
+
+    private void encerrar(Assinante assinante) {
+        assinantes.remove(assinante);
+        assinante.encerrado = true;
+        assinante.fila.clear();
+        envios.execute(assinante.emitter::complete); // complete espera um send em andamento; nao segura o relay
+    }
+
+    // Le do banco tudo o que veio depois da ultima posicao do cliente, em paginas, e depois passa para a fila
+    private void reenviar(Assinante assinante) {
+        try {
+            long menorRetida = eventos.menorPosicaoRetida();
+            if (assinante.ultimaPosicao + 1 < menorRetida) { // Parte do que o cliente perdeu ja foi apagada pela retencao
+                long atual = Math.max(eventos.ultimaPosicao(), menorRetida - 1);
+                if (!assinante.reiniciar(atual)) {
+                    assinantes.remove(assinante);
+                    return;
+                }
+            }
+            if (!enviarDoBanco(assinante)) {
+                return;
+            }
+            assinante.aoVivo = true; // A partir daqui o relay enfileira; a leitura abaixo cobre o que ele publicou antes
+            if (!enviarDoBanco(assinante)) {
+                return;
+            }
+            drenar(assinante); // Eventos da fila ja enviados pelo banco sao ignorados pela posicao
+        } catch (RuntimeException e) {
+            assinantes.remove(assinante);
+            assinante.emitter.completeWithError(e);
+        }
+    }
+
+    private boolean enviarDoBanco(Assinante assinante) {
+        List<AlteracaoDTO> pagina;
+        do {
+            pagina = eventos.buscarDesde(assinante.ultimaPosicao, tamanhoLote);
+            for (AlteracaoDTO alteracao : pagina) {
+                if (assinante.encerrado || !assinante.enviar(alteracao)) {
+                    assinantes.remove(assinante);
+                    return false;
+                }
+            }
+        } while (pagina.size() == tamanhoLote);
+        return true;
+    }
+
+    private static final class Assinante {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<AlteracaoDTO> fila; // Limitada: o relay nunca espera por um cliente
+
+        private final AtomicBoolean agendado = new AtomicBoolean(); // Ha uma tarefa esvaziando a fila (ou reenviando)
+
+        private volatile boolean aoVivo; // false enquanto os eventos perdidos sao reenviados do banco
+
+        private volatile boolean encerrado; // Desconectado por atraso; a tarefa para de enviar
+
+        private long ultimaPosicao; // Ultima posicao enviada a este cliente (acesso apenas pela tarefa do assinante)
+
+        Assinante(SseEmitter emitter, BlockingQueue<AlteracaoDTO> fila, long ultimaPosicao, boolean aoVivo) {
+            this.emitter = emitter;
+            this.fila = fila;
+            this.ultimaPosicao = ultimaPosicao;
+            this.aoVivo = aoVivo;
+        }
+
+        // Envia o evento se for posterior a ultimaPosicao. Retorna false quando a conexao caiu
+        boolean enviar(AlteracaoDTO alteracao) {
+            if (alteracao.posicao() <= ultimaPosicao) {
+                return true;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(alteracao.posicao()))
+                        .name(alteracao.entidade().toLowerCase()) // "autor" ou "livro"
+                        .data(alteracao));
+                ultimaPosicao = alteracao.posicao();
+                return true;
+            } catch (IOException | IllegalStateException e) { // Cliente desconectou ou o emitter ja foi encerrado
+                return false;
+            }
+        }
+
+        // Avisa que os eventos desde a posicao do cliente nao existem mais: ele recarrega tudo e segue a partir de posicao
+        boolean reiniciar(long posicao) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(posicao))
+                        .name("reinicio")
+                        .data(posicao));
+                ultimaPosicao = posicao;
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.cursoudemy.libraryapi.service.alteracoes;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AlteracaoDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Acesso a tabela evento_alteracao (outbox) com JdbcTemplate. As linhas sao inseridas pelas triggers de autor e livro
+ * (comandos_slq.txt); aqui elas sao numeradas, lidas por posicao e apagadas apos o periodo de retencao.
+ */
+@Component
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+class EventosAlteracao {
+
+    private static final long CHAVE_TRAVA_RELAY = 4_871_023L; // pg_advisory_xact_lock: uma instancia numerando por vez
+
+    private static final String NUMERAR_PENDENTES = """
+            with pendentes as (
+                select id from evento_alteracao
+                where posicao is null
+                order by id
+                limit ?
+            )
+            update evento_alteracao e set posicao = nextval('evento_alteracao_posicao_seq')
+            from pendentes
+            where e.id = pendentes.id
+            """;
+
+    private static final String BUSCAR_DESDE = """
+            select posicao, entidade, operacao, id_registro, data_evento
+            from evento_alteracao
+            where posicao > ?
+            order by posicao
+            limit ?
+            """;
+
+    private static final String MENOR_POSICAO_RETIDA = """
+            select coalesce(min(posicao),
+                    (select case when is_called then last_value else 0 end from evento_alteracao_posicao_seq) + 1)
+            from evento_alteracao
+            """;
+
+    private static final RowMapper<AlteracaoDTO> MAPEADOR = (linha, numero) -> new AlteracaoDTO(
+            linha.getLong("posicao"),
+            linha.getString("entidade"),
+            linha.getString("operacao"),
+            linha.getObject("id_registro", UUID.class),
+            linha.getObject("data_evento", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Deve rodar dentro de uma transacao: a trava e liberada no commit, depois que as posicoes ficaram visiveis.
+    // Assim a numeracao seguinte (desta ou de outra instancia) sempre recebe posicoes maiores que as ja visiveis.
+    boolean travarNumeracao() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, CHAVE_TRAVA_RELAY));
+    }
+
+    // Numera ate limite eventos ja confirmados (os de transacoes em andamento ainda nao sao visiveis e ficam para depois)
+    int numerarPendentes(int limite) {
+        return jdbcTemplate.update(NUMERAR_PENDENTES, limite);
+    }
+
+    List<AlteracaoDTO> buscarDesde(long posicao, int limite) {
+        return jdbcTemplate.query(BUSCAR_DESDE, MAPEADOR, posicao, limite);
+    }
+
+    long ultimaPosicao() {
+        Long posicao = jdbcTemplate.queryForObject("select max(posicao) from evento_alteracao", Long.class);
+        return posicao != null ? posicao : 0;
+    }
+
+    // Menor posicao ainda no outbox; com a tabela vazia, a seguinte a ultima ja usada. Um cliente com posicao anterior
+    // a esta menos um perdeu eventos apagados pela retencao
+    long menorPosicaoRetida() {
+        Long posicao = jdbcTemplate.queryForObject(MENOR_POSICAO_RETIDA, Long.class);
+        return posicao != null ? posicao : 1;
+    }
+
+    int excluirAnterioresA(LocalDateTime limite) { // Somente eventos ja numerados (e portanto ja enviados)
+        return jdbcTemplate.update("delete from evento_alteracao where data_evento < ? and posicao is not null", limite);
+    }
+}
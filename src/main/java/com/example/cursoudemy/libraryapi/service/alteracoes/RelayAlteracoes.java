@@ -0,0 +1,86 @@
+package com.example.cursoudemy.libraryapi.service.alteracoes;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AlteracaoDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Acompanha o outbox (evento_alteracao) e repassa os eventos ao DifusorAlteracoes.
+ * A cada intervalo:
+ * 1) numera os eventos ja confirmados que ainda nao tem posicao, em uma transacao com trava consultiva, de modo que
+ *    as posicoes crescam na ordem em que os eventos ficaram visiveis (tambem com varias instancias da aplicacao);
+ * 2) le os eventos com posicao maior que a ultima publicada por esta instancia e os entrega aos assinantes.
+ * Como o passo 2 le o banco, cada instancia publica tambem os eventos numerados pelas outras.
+ */
+@Slf4j
+@Component
+public class RelayAlteracoes {
+
+    private final EventosAlteracao eventos;
+
+    private final DifusorAlteracoes difusor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${libraryapi.alteracoes.tamanho-lote:500}") // Eventos numerados/lidos por comando
+    private int tamanhoLote;
+
+    @Value("${libraryapi.alteracoes.retencao:7d}") // Idade maxima dos eventos mantidos para reenvio
+    private Duration retencao;
+
+    private long ultimaPublicada = -1; // -1: ainda nao leu a posicao atual (acessado so pela thread do agendador)
+
+    public RelayAlteracoes(EventosAlteracao eventos, DifusorAlteracoes difusor, PlatformTransactionManager transactionManager) {
+        this.eventos = eventos;
+        this.difusor = difusor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${libraryapi.alteracoes.intervalo:1s}")
+    public void executar() {
+        try {
+            if (ultimaPublicada < 0) { // Eventos anteriores a subida da aplicacao so sao enviados a quem pedir (Last-Event-ID)
+                ultimaPublicada = eventos.ultimaPosicao();
+            }
+            numerar();
+            publicar();
+        } catch (RuntimeException e) { // Banco indisponivel: tenta de novo no proximo intervalo
+            log.warn("Falha ao processar o outbox de alteracoes: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${libraryapi.alteracoes.limpeza:1h}")
+    public void limpar() {
+        int excluidos = eventos.excluirAnterioresA(LocalDateTime.now().minus(retencao));
+        if (excluidos > 0) {
+            log.info("{} eventos de alteracao anteriores a {} removidos", excluidos, retencao);
+        }
+    }
+
+    private void numerar() {
+        boolean continuar = true;
+        while (continuar) { // Um bloco por transacao, ate acabarem os pendentes
+            continuar = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                    eventos.travarNumeracao() && eventos.numerarPendentes(tamanhoLote) == tamanhoLote));
+        }
+    }
+
+    private void publicar() {
+        List<AlteracaoDTO> novos;
+        do {
+            novos = eventos.buscarDesde(ultimaPublicada, tamanhoLote);
+            if (!novos.isEmpty()) {
+                difusor.publicar(novos);
+                ultimaPublicada = novos.get(novos.size() - 1).posicao();
+            }
+        } while (novos.size() == tamanhoLote);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.cursoudemy.libraryapi.service.busca;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Busca de autores por trecho do nome e/ou da nacionalidade, sem diferenciar maiusculas/minusculas nem acentos.
+ * Substitui o "lower(nome) like '%x%'" gerado pelo ExampleMatcher CONTAINING, que nao usa indice e varre a tabela inteira.
+ * A implementacao e escolhida pela propriedade libraryapi.busca.motor:
+ * - postgres (padrao): indices GIN de trigramas (pg_trgm) sobre colunas normalizadas (MotorBuscaAutorPostgres);
+ * - memoria: indice de trigramas mantido na propria aplicacao, para testes e bancos embarcados (MotorBuscaAutorMemoria).
+ */
+public interface MotorBuscaAutor {
+
+    // Pagina de autores que contem os termos informados (filtros nulos sao ignorados), ordenada por (nome, id)
+    // e comecando logo apos a chave (ultimoNome, ultimoId), como AutorRepositoryCustom.pesquisarPagina
+    List<AutorDTO> pesquisar(String nome, String nacionalidade, String ultimoNome, UUID ultimoId, int limite);
+
+    // Quantidade de autores que contem os termos informados
+    long contar(String nome, String nacionalidade);
+
+    // Chamado pelo AutorCacheInvalidador apos o commit de autores criados, alterados ou excluidos
+    // O indice do banco se atualiza sozinho; somente o indice em memoria precisa recarregar estes ids
+    default void autoresAlterados(Collection<UUID> ids) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.cursoudemy.libraryapi.service.busca;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import com.example.cursoudemy.libraryapi.models.Autor;
+import com.example.cursoudemy.libraryapi.repository.AutorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Indice de trigramas em memoria, para testes e bancos embarcados sem pg_trgm.
+ * Cada nome e nacionalidade normalizados (NormalizadorBusca) sao quebrados em trigramas ("bri", "rit", "ita", ...) e
+ * cada trigrama aponta para os ids dos autores que o contem. Uma busca cruza as listas dos trigramas do termo
+ * (comecando pela menor) e so confere o "contem" nos poucos candidatos que sobram.
+ * O indice e carregado quando a aplicacao sobe e mantido pelo AutorCacheInvalidador, que avisa os ids alterados.
+ */
+@Component
+@ConditionalOnProperty(name = "libraryapi.busca.motor", havingValue = "memoria")
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class MotorBuscaAutorMemoria implements MotorBuscaAutor {
+
+    private static final int TAMANHO_NGRAMA = 3;
+
+    // Mesma ordem do "order by nome, id" do banco; o UUID e comparado sem sinal, como no PostgreSQL
+    private static final Comparator<AutorDTO> ORDEM = Comparator.comparing(AutorDTO::nome)
+            .thenComparing(AutorDTO::id, MotorBuscaAutorMemoria::compararUuid);
+
+    private final AutorRepository repository;
+
+    private final Map<UUID, Entrada> autores = new HashMap<>(); // Autores indexados por id
+
+    private final Map<String, Set<UUID>> indiceNome = new HashMap<>(); // Trigrama -> ids dos autores cujo nome o contem
+
+    private final Map<String, Set<UUID>> indiceNacionalidade = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(); // Varias buscas ao mesmo tempo, uma atualizacao por vez
+
+    @EventListener(ApplicationReadyEvent.class) // Carrega todos os autores uma vez, quando a aplicacao termina de subir
+    public void carregar() {
+        List<Autor> todos = repository.findAll();
+        lock.writeLock().lock();
+        try {
+            todos.forEach(this::indexar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void autoresAlterados(Collection<UUID> ids) {
+        List<Autor> atuais = repository.findAllById(ids); // Ids ausentes no resultado foram excluidos
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::remover);
+            atuais.forEach(this::indexar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<AutorDTO> pesquisar(String nome, String nacionalidade, String ultimoNome, UUID ultimoId, int limite) {
+        lock.readLock().lock();
+        try {
+            Stream<AutorDTO> encontrados = encontrar(nome, nacionalidade);
+            if (ultimoNome != null && ultimoId != null) { // Mesmo keyset do banco: (nome, id) > (ultimoNome, ultimoId)
+                AutorDTO ultimo = new AutorDTO(ultimoId, ultimoNome, null, null);
+                encontrados = encontrados.filter(a -> ORDEM.compare(a, ultimo) > 0);
+            }
+            return encontrados.sorted(ORDEM).limit(limite).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long contar(String nome, String nacionalidade) {
+        lock.readLock().lock();
+        try {
+            return encontrar(nome, nacionalidade).count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Deve ser chamado com o lock de leitura; o stream e consumido antes de o lock ser liberado
+    private Stream<AutorDTO> encontrar(String nome, String nacionalidade) {
+        String termoNome = NormalizadorBusca.normalizar(nome);
+        String termoNacionalidade = NormalizadorBusca.normalizar(nacionalidade);
+
+        Set<UUID> candidatos = candidatos(indiceNome, termoNome);
+        Set<UUID> candidatosNacionalidade = candidatos(indiceNacionalidade, termoNacionalidade);
+        Collection<UUID> ids;
+        if (candidatos == null && candidatosNacionalidade == null) { // Sem trigramas para usar: confere todos os autores
+            ids = autores.keySet();
+        } else if (candidatos == null || candidatosNacionalidade == null) {
+            ids = candidatos != null ? candidatos : candidatosNacionalidade;
+        } else {
+            ids = intersecao(candidatos, candidatosNacionalidade);
+        }
+
+        return ids.stream()
+                .map(autores::get)
+                .filter(e -> termoNome == null || e.nome().contains(termoNome)) // Os trigramas podem estar fora de ordem no texto
+                .filter(e -> termoNacionalidade == null || e.nacionalidade().contains(termoNacionalidade))
+                .map(Entrada::autor);
+    }
+
+    // Ids que possuem todos os trigramas do termo, ou null quando o termo e nulo ou curto demais para ter trigramas
+    private Set<UUID> candidatos(Map<String, Set<UUID>> indice, String termo) {
+        if (termo == null || termo.length() < TAMANHO_NGRAMA) {
+            return null;
+        }
+        List<Set<UUID>> listas = trigramas(termo).stream()
+                .map(t -> indice.getOrDefault(t, Set.of()))
+                .sorted(Comparator.comparingInt(Set::size)) // Comeca pela lista mais curta
+                .toList();
+        Set<UUID> resultado = listas.get(0);
+        for (int i = 1; i < listas.size() && !resultado.isEmpty(); i++) {
+            resultado = intersecao(resultado, listas.get(i));
+        }
+        return resultado;
+    }
+
+    private static Set<UUID> intersecao(Set<UUID> menor, Set<UUID> maior) {
+        if (menor.size() > maior.size()) {
+            return intersecao(maior, menor);
+        }
+        Set<UUID> resultado = new HashSet<>();
+        for (UUID id : menor) {
+            if (maior.contains(id)) {
+                resultado.add(id);
+            }
+        }
+        return resultado;
+    }
+
+    // Deve ser chamado com o lock de escrita
+    private void indexar(Autor autor) {
+        Entrada entrada = new Entrada(
+                new AutorDTO(autor.getId(), autor.getNome(), autor.getDataNascimento(), autor.getNacionalidade()),
+                NormalizadorBusca.normalizar(autor.getNome()),
+                NormalizadorBusca.normalizar(autor.getNacionalidade()));
+        autores.put(autor.getId(), entrada);
+        trigramas(entrada.nome()).forEach(t -> indiceNome.computeIfAbsent(t, k -> new HashSet<>()).add(autor.getId()));
+        trigramas(entrada.nacionalidade()).forEach(t -> indiceNacionalidade.computeIfAbsent(t, k -> new HashSet<>()).add(autor.getId()));
+    }
+
+    // Deve ser chamado com o lock de escrita
+    private void remover(UUID id) {
+        Entrada entrada = autores.remove(id);
+        if (entrada == null) {
+            return;
+        }
+        trigramas(entrada.nome()).forEach(t -> removerDoIndice(indiceNome, t, id));
+        trigramas(entrada.nacionalidade()).forEach(t -> removerDoIndice(indiceNacionalidade, t, id));
+    }
+
+    private static void removerDoIndice(Map<String, Set<UUID>> indice, String trigrama, UUID id) {
+        Set<UUID> ids = indice.get(trigrama);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            indice.remove(trigrama); // Nao guarda listas vazias
+        }
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + TAMANHO_NGRAMA <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + TAMANHO_NGRAMA));
+        }
+        return trigramas;
+    }
+
+    private static int compararUuid(UUID a, UUID b) {
+        int comparacao = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return comparacao != 0 ? comparacao : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    // Autor indexado junto com o nome e a nacionalidade ja normalizados
+    private record Entrada(AutorDTO autor, String nome, String nacionalidade) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.cursoudemy.libraryapi.service.busca;
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Busca por substring com os indices GIN de trigramas (pg_trgm) das colunas geradas nome_busca e nacionalidade_busca
+ * (lower(f_unaccent(...)), ver comandos_slq.txt). O PostgreSQL responde "nome_busca like '%termo%'" pelo indice,
+ * lendo apenas as linhas que possuem todos os trigramas do termo, em vez de varrer a tabela.
+ * As colunas geradas nao sao mapeadas na entidade Autor, por isso as consultas sao SQL nativo via JDBC.
+ * Termos com menos de 3 caracteres nao formam trigramas e continuam sendo resolvidos com uma varredura.
+ */
+@Component
+@ConditionalOnProperty(name = "libraryapi.busca.motor", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class MotorBuscaAutorPostgres implements MotorBuscaAutor {
+
+    private static final RowMapper<AutorDTO> MAPEADOR = (rs, linha) -> new AutorDTO(
+            rs.getObject("id", UUID.class),
+            rs.getString("nome"),
+            rs.getObject("data_nascimento", LocalDate.class),
+            rs.getString("nacionalidade"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<AutorDTO> pesquisar(String nome, String nacionalidade, String ultimoNome, UUID ultimoId, int limite) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("select id, nome, data_nascimento, nacionalidade from autor")
+                .append(filtros(nome, nacionalidade, parametros));
+        if (ultimoNome != null && ultimoId != null) { // Posiciona a consulta logo apos a ultima linha da pagina anterior
+            sql.append(parametros.getValues().isEmpty() ? " where" : " and").append(" (nome, id) > (:ultimoNome, :ultimoId)");
+            parametros.addValue("ultimoNome", ultimoNome).addValue("ultimoId", ultimoId);
+        }
+        sql.append(" order by nome, id limit :limite");
+        parametros.addValue("limite", limite);
+        return jdbcTemplate.query(sql.toString(), parametros, MAPEADOR);
+    }
+
+    @Override
+    public long contar(String nome, String nacionalidade) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource();
+        String sql = "select count(*) from autor" + filtros(nome, nacionalidade, parametros);
+        Long total = jdbcTemplate.queryForObject(sql, parametros, Long.class);
+        return total != null ? total : 0;
+    }
+
+    // Monta o "where" somente com os filtros informados, para o planner escolher o indice de cada combinacao
+    private String filtros(String nome, String nacionalidade, MapSqlParameterSource parametros) {
+        StringBuilder where = new StringBuilder();
+        if (nome != null) {
+            where.append(" where nome_busca like :nome escape '\\'");
+            parametros.addValue("nome", NormalizadorBusca.padraoContem(nome));
+        }
+        if (nacionalidade != null) {
+            where.append(nome != null ? " and" : " where").append(" nacionalidade_busca like :nacionalidade escape '\\'");
+            parametros.addValue("nacionalidade", NormalizadorBusca.padraoContem(nacionalidade));
+        }
+        return where.toString();
+    }
+}
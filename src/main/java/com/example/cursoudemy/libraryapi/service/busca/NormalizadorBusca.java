@@ -0,0 +1,35 @@
+package com.example.cursoudemy.libraryapi.service.busca;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizacao de texto usada pela busca por substring: remove acentos e converte para minusculas,
+ * para que "britanico" encontre "Britânico". E a mesma transformacao das colunas nome_busca/nacionalidade_busca
+ * do banco (lower(f_unaccent(...)), ver comandos_slq.txt), aplicada aqui ao termo pesquisado.
+ */
+public final class NormalizadorBusca {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+"); // Acentos separados da letra pela forma NFD
+
+    private NormalizadorBusca() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll(""); // "â" -> "a" + "^" -> "a"
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    // Termo normalizado pronto para "like '%termo%' escape '\'": os curingas digitados pelo cliente viram caracteres comuns
+    public static String padraoContem(String texto) {
+        String normalizado = normalizar(texto)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + normalizado + "%";
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.cursoudemy.libraryapi.service.estatisticas;
+
+import com.example.cursoudemy.libraryapi.controller.dto.EstatisticaGeneroDTO;
+import com.example.cursoudemy.libraryapi.models.GeneroLivro;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Quantidade de livros e preco minimo/medio/maximo/total por genero, mantidos em memoria.
+ * Antes o painel fazia um findByGenero (leitura completa dos livros) por genero a cada acesso; agora:
+ * - a carga inicial e um unico GROUP BY (genero, preco), feito antes da aplicacao aceitar requisicoes;
+ * - cada insercao, alteracao e exclusao confirmada ajusta apenas o genero afetado (EstatisticasCatalogoEventos);
+ * - GET /estatisticas/livros le o EnumMap, sem ir ao banco.
+ * Cada genero guarda quantos livros existem com cada preco (TreeMap ordenado por preco): assim o minimo e o maximo
+ * continuam corretos quando o livro mais barato ou o mais caro e excluido, sem reler a tabela.
+ * Se um evento nao puder ser aplicado, os totais sao marcados como desatualizados e refeitos por reconstruirSeDesatualizado.
+ */
+@Component
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class EstatisticasCatalogo implements SmartInitializingSingleton {
+
+    private static final String CONSULTA_CARGA = "select genero, preco, count(*) from livro group by genero, preco";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<GeneroLivro, Acumulador> generos = new EnumMap<>(GeneroLivro.class); // Acesso protegido por synchronized
+
+    private long epoca; // Quantidade de alteracoes aplicadas; invalida uma reconstrucao que as tenha cruzado
+
+    private boolean desatualizado; // Algum evento nao pode ser aplicado; a reconstrucao agendada refaz os totais
+
+    private Candidata candidata; // Resultado de um GROUP BY esperando a confirmacao de que nenhuma escrita o cruzou
+
+    @Override // Chamado depois de criados todos os beans e antes do servidor web iniciar: ainda nao ha escritas concorrentes
+    public synchronized void afterSingletonsInstantiated() {
+        substituir(carregar());
+    }
+
+    // Um evento chegou sem o estado anterior do livro: os totais deixam de ser confiaveis ate a proxima reconstrucao
+    public synchronized void marcarDesatualizado() {
+        epoca++; // A escrita ja foi confirmada: um GROUP BY anterior a ela tambem nao serve
+        desatualizado = true;
+    }
+
+    // Reconstrucao em tempo de execucao. Nao pode simplesmente trocar os totais pelo GROUP BY: uma transacao confirmada
+    // antes da consulta (e portanto ja contada nela) pode ter o evento post-commit aplicado depois, contando duas vezes.
+    // Por isso o resultado so e aceito na execucao seguinte, se nenhuma escrita foi aplicada desde antes da consulta
+    // (epoca inalterada); o intervalo entre as execucoes cobre o atraso entre o commit e o evento.
+    @Scheduled(fixedDelayString = "${libraryapi.estatisticas.reconstrucao:1m}")
+    public void reconstruirSeDesatualizado() {
+        long epocaAtual;
+        synchronized (this) {
+            if (!desatualizado) {
+                candidata = null;
+                return;
+            }
+            if (candidata != null && candidata.epoca() == epoca) {
+                substituir(candidata.generos());
+                return;
+            }
+            candidata = null;
+            epocaAtual = epoca;
+        }
+        Map<GeneroLivro, Acumulador> carregados = carregar(); // Fora do lock: as escritas continuam sendo aplicadas
+        synchronized (this) {
+            candidata = new Candidata(carregados, epocaAtual);
+        }
+    }
+
+    public synchronized void livroInserido(GeneroLivro genero, BigDecimal preco) {
+        acumulador(genero).adicionar(preco, 1);
+    }
+
+    public synchronized void livroAlterado(GeneroLivro generoAnterior, BigDecimal precoAnterior, GeneroLivro genero, BigDecimal preco) {
+        acumulador(generoAnterior).remover(precoAnterior, 1);
+        acumulador(genero).adicionar(preco, 1);
+    }
+
+    public synchronized void livroExcluido(GeneroLivro genero, BigDecimal preco) {
+        acumulador(genero).remover(preco, 1);
+    }
+
+    // Exclusao em bloco (LivroOperacaoLoteService): quantidade de livros excluidos por preco (chave nula = sem preco)
+    public synchronized void livrosExcluidos(GeneroLivro genero, Map<BigDecimal, Long> quantidadePorPreco) {
+        Acumulador acumulador = acumulador(genero);
+        quantidadePorPreco.forEach(acumulador::remover);
+    }
+
+    // LivroRepository.deleteByGenero: o comando remove todos os livros do genero e nao informa quais eram
+    public synchronized void generoExcluido(GeneroLivro genero) {
+        epoca++;
+        generos.put(genero, new Acumulador());
+    }
+
+    public synchronized List<EstatisticaGeneroDTO> listar() {
+        return generos.entrySet().stream() // EnumMap: sempre na ordem declarada em GeneroLivro
+                .map(entrada -> entrada.getValue().paraDTO(entrada.getKey()))
+                .toList();
+    }
+
+    private Map<GeneroLivro, Acumulador> carregar() {
+        Map<GeneroLivro, Acumulador> carregados = novosAcumuladores();
+        jdbcTemplate.query(CONSULTA_CARGA, linha -> {
+            GeneroLivro genero = GeneroLivro.valueOf(linha.getString(1));
+            carregados.get(genero).adicionar(linha.getBigDecimal(2), linha.getLong(3));
+        });
+        return carregados;
+    }
+
+    private void substituir(Map<GeneroLivro, Acumulador> carregados) {
+        generos.clear();
+        generos.putAll(carregados);
+        desatualizado = false;
+        candidata = null;
+    }
+
+    private Acumulador acumulador(GeneroLivro genero) {
+        epoca++; // Todas as alteracoes passam por aqui
+        return generos.computeIfAbsent(genero, g -> new Acumulador()); // Vazio so antes da carga inicial
+    }
+
+    private static Map<GeneroLivro, Acumulador> novosAcumuladores() {
+        Map<GeneroLivro, Acumulador> acumuladores = new EnumMap<>(GeneroLivro.class);
+        Arrays.stream(GeneroLivro.values()).forEach(genero -> acumuladores.put(genero, new Acumulador())); // Generos sem livros aparecem zerados
+        return acumuladores;
+    }
+
+    private record Candidata(Map<GeneroLivro, Acumulador> generos, long epoca) {
+    }
+
+    // Valores de um genero. Nao e thread-safe: so e acessado dentro dos metodos synchronized acima
+    private static final class Acumulador {
+
+        private long quantidade; // Todos os livros do genero, com ou sem preco
+
+        private long quantidadeComPreco;
+
+        private BigDecimal valorTotal = BigDecimal.ZERO;
+
+        private final TreeMap<BigDecimal, Long> precos = new TreeMap<>(); // Preco -> quantidade de livros; compareTo ignora a escala (10.0 == 10.00)
+
+        void adicionar(BigDecimal preco, long vezes) {
+            quantidade += vezes;
+            if (preco != null) {
+                quantidadeComPreco += vezes;
+                valorTotal = valorTotal.add(preco.multiply(BigDecimal.valueOf(vezes)));
+                precos.merge(preco, vezes, Long::sum);
+            }
+        }
+
+        void remover(BigDecimal preco, long vezes) {
+            quantidade = Math.max(quantidade - vezes, 0);
+            if (preco != null) {
+                quantidadeComPreco = Math.max(quantidadeComPreco - vezes, 0);
+                valorTotal = valorTotal.subtract(preco.multiply(BigDecimal.valueOf(vezes)));
+                precos.computeIfPresent(preco, (p, atual) -> atual > vezes ? atual - vezes : null); // null remove o preco do mapa
+            }
+        }
+
+        EstatisticaGeneroDTO paraDTO(GeneroLivro genero) {
+            if (precos.isEmpty()) {
+                return new EstatisticaGeneroDTO(genero, quantidade, null, null, null, null);
+            }
+            BigDecimal medio = valorTotal.divide(BigDecimal.valueOf(quantidadeComPreco), 2, RoundingMode.HALF_EVEN);
+            return new EstatisticaGeneroDTO(genero, quantidade, precos.firstKey(), medio, precos.lastKey(), valorTotal);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.cursoudemy.libraryapi.service.estatisticas;
+
+import com.example.cursoudemy.libraryapi.models.GeneroLivro;
+import com.example.cursoudemy.libraryapi.models.Livro;
+import jakarta.persistence.EntityManagerFactory;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Repassa ao EstatisticasCatalogo as escritas de livros confirmadas no banco:
+ * - insert/update/delete de entidades Livro pelo Hibernate, com listeners "post commit" (nao sao chamados em rollback);
+ *   o update usa o estado anterior carregado na sessao para tirar o livro do genero/preco antigos;
+ * - LivroRepository.deleteByGenero, que e um delete JPQL em massa e nao gera eventos por entidade.
+ * A exclusao em blocos do LivroOperacaoLoteService recebe do banco os precos excluidos e avisa o catalogo diretamente.
+ */
+@Aspect
+@Component
+public class EstatisticasCatalogoEventos implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final EstatisticasCatalogo estatisticas;
+
+    public EstatisticasCatalogoEventos(EstatisticasCatalogo estatisticas, EntityManagerFactory entityManagerFactory) {
+        this.estatisticas = estatisticas;
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registro.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registro.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) { // So os eventos de Livro interessam
+        return Livro.class.equals(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Livro livro) {
+            estatisticas.livroInserido(livro.getGenero(), livro.getPreco());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Livro livro)) {
+            return;
+        }
+        Object[] estadoAnterior = event.getOldState();
+        if (estadoAnterior == null) { // Entidade atualizada sem ter sido carregada na sessao: nao ha como saber o que mudou
+            estatisticas.marcarDesatualizado(); // Recarregar aqui contaria duas vezes escritas confirmadas durante a carga
+            return;
+        }
+        List<String> propriedades = Arrays.asList(event.getPersister().getPropertyNames());
+        estatisticas.livroAlterado(
+                (GeneroLivro) estadoAnterior[propriedades.indexOf("genero")],
+                (BigDecimal) estadoAnterior[propriedades.indexOf("preco")],
+                livro.getGenero(), livro.getPreco());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof Livro)) {
+            return;
+        }
+        Object[] estado = event.getDeletedState(); // Valores do livro no momento da exclusao
+        List<String> propriedades = Arrays.asList(event.getPersister().getPropertyNames());
+        estatisticas.livroExcluido(
+                (GeneroLivro) estado[propriedades.indexOf("genero")],
+                (BigDecimal) estado[propriedades.indexOf("preco")]);
+    }
+
+    // A transacao falhou ao confirmar: o catalogo nao foi alterado, nada a desfazer
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    // Depois do deleteByGenero o genero fica vazio. Se houver transacao externa, espera o commit dela
+    @AfterReturning("target(com.example.cursoudemy.libraryapi.repository.LivroRepository) && execution(* deleteByGenero(..)) && args(genero)")
+    public void generoExcluido(GeneroLivro genero) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    estatisticas.generoExcluido(genero);
+                }
+            });
+        } else { // O @Transactional do proprio repositorio ja confirmou o delete
+            estatisticas.generoExcluido(genero);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.cursoudemy.libraryapi.service.lote;
+
+import com.example.cursoudemy.libraryapi.exceptions.OperacaoNaoPermitidaException;
+import com.example.cursoudemy.libraryapi.exceptions.RegistroDuplicadoException;
+import com.example.cursoudemy.libraryapi.exceptions.RegistroNaoEncontradoException;
+import com.example.cursoudemy.libraryapi.models.GeneroLivro;
+import com.example.cursoudemy.libraryapi.models.id.GeradorUuidV7;
+import com.example.cursoudemy.libraryapi.repository.LivroRepository;
+import com.example.cursoudemy.libraryapi.service.estatisticas.EstatisticasCatalogo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Executa em segundo plano as alteracoes em massa da tabela livro, em blocos ordenados pela chave primaria:
+ * - atualizar a data de publicacao de todos os livros (antes LivroRepository.atualizarDataDePublicacaoDeLivros);
+ * - excluir todos os livros de um genero (antes LivroRepository.deleteByGenero).
+ * Cada bloco de tamanhoLote livros e um comando e uma transacao: os locks de linha duram apenas o bloco, o WAL e
+ * gerado aos poucos e o vacuum consegue acompanhar, em vez de um unico comando travando a tabela por minutos.
+ * As operacoes ficam na tabela operacao_lote, e a posicao (ultimoId) e gravada na transacao de cada bloco: qualquer
+ * instancia responde ao status, o cancelamento vale para a instancia que executa e, se ela cair, outra (ou ela mesma
+ * ao reiniciar) assume a operacao depois de expiracao e continua do ultimo bloco confirmado.
+ */
+@Service
+public class LivroOperacaoLoteService {
+
+    private static final int LIMITE_LISTAGEM = 100; // Operacoes mais recentes retornadas por GET /livros/operacoes-lote
+
+    private final LivroRepository livroRepository;
+
+    private final OperacoesLote operacoes;
+
+    private final EstatisticasCatalogo estatisticas; // Recebe os precos dos livros excluidos em cada bloco
+
+    private final TaskExecutor applicationTaskExecutor; // Executor do Spring Boot (threads virtuais quando habilitadas)
+
+    private final TransactionTemplate transactionTemplate; // Uma transacao por bloco: comando do bloco + posicao da operacao
+
+    private final UUID instancia = GeradorUuidV7.gerar(); // Identifica esta instancia como executora (coluna executor)
+
+    @Value("${libraryapi.operacao-lote.tamanho-lote:1000}") // Livros alterados por bloco (e por transacao)
+    private int tamanhoLote;
+
+    @Value("${libraryapi.operacao-lote.pausa:0ms}") // Intervalo entre blocos, para aliviar replicas e o vacuum
+    private Duration pausa;
+
+    @Value("${libraryapi.operacao-lote.expiracao:5m}") // Sem bloco confirmado por este tempo, a operacao e considerada abandonada
+    private Duration expiracao;
+
+    public LivroOperacaoLoteService(LivroRepository livroRepository, OperacoesLote operacoes, EstatisticasCatalogo estatisticas,
+                                    TaskExecutor applicationTaskExecutor, PlatformTransactionManager transactionManager) {
+        this.livroRepository = livroRepository;
+        this.operacoes = operacoes;
+        this.estatisticas = estatisticas;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public OperacaoLote iniciarAtualizacaoDataPublicacao(LocalDate data) {
+        return iniciar(OperacaoLote.Tipo.ATUALIZAR_DATA_PUBLICACAO, data.toString(), livroRepository.count());
+    }
+
+    public OperacaoLote iniciarExclusaoPorGenero(GeneroLivro genero) {
+        return iniciar(OperacaoLote.Tipo.EXCLUIR_POR_GENERO, genero.name(), livroRepository.countByGenero(genero));
+    }
+
+    public Optional<OperacaoLote> buscar(UUID id) {
+        return operacoes.buscar(id);
+    }
+
+    public List<OperacaoLote> listar() {
+        return operacoes.listarRecentes(LIMITE_LISTAGEM);
+    }
+
+    public OperacaoLote cancelar(UUID id) { // O bloco em andamento termina; o proximo nao comeca
+        obter(id);
+        if (!operacoes.solicitarCancelamento(id)) {
+            throw new OperacaoNaoPermitidaException("Somente operacoes em execucao podem ser canceladas.");
+        }
+        return obter(id);
+    }
+
+    public OperacaoLote retomar(UUID id) {
+        obter(id);
+        try {
+            if (!operacoes.retomar(id, instancia)) {
+                throw new OperacaoNaoPermitidaException("Somente operacoes canceladas ou com falha podem ser retomadas.");
+            }
+        } catch (DuplicateKeyException e) { // ux_operacao_lote_ativa
+            throw new RegistroDuplicadoException("Ja existe uma operacao em execucao para este tipo e parametro.");
+        }
+        applicationTaskExecutor.execute(() -> executar(id)); // Continua a partir do ultimo_id gravado
+        return obter(id);
+    }
+
+    // Operacoes de instancias que cairam (ou desta, antes de reiniciar) continuam aqui do ultimo bloco confirmado
+    @Scheduled(fixedDelayString = "${libraryapi.operacao-lote.verificacao:1m}")
+    public void retomarAbandonadas() {
+        operacoes.assumirAbandonadas(instancia, expiracao)
+                .forEach(id -> applicationTaskExecutor.execute(() -> executar(id)));
+    }
+
+    private OperacaoLote obter(UUID id) {
+        return buscar(id).orElseThrow(() -> new RegistroNaoEncontradoException("Operacao em lote nao encontrada."));
+    }
+
+    private OperacaoLote iniciar(OperacaoLote.Tipo tipo, String parametro, long totalPrevisto) {
+        UUID id = GeradorUuidV7.gerar();
+        try {
+            operacoes.inserir(id, tipo, parametro, totalPrevisto, instancia);
+        } catch (DuplicateKeyException e) { // ux_operacao_lote_ativa
+            throw new RegistroDuplicadoException("Ja existe uma operacao em execucao para este tipo e parametro.");
+        }
+        applicationTaskExecutor.execute(() -> executar(id));
+        return obter(id);
+    }
+
+    private void executar(UUID id) {
+        try {
+            while (true) {
+                Bloco bloco = transactionTemplate.execute(status -> executarBloco(id));
+                if (bloco == null) { // Concluida, cancelada ou assumida por outra instancia
+                    return;
+                }
+                if (!bloco.excluidosPorPreco().isEmpty()) { // O bloco ja foi confirmado: desconta do catalogo os precos excluidos
+                    estatisticas.livrosExcluidos(bloco.genero(), bloco.excluidosPorPreco());
+                }
+                if (!pausa.isZero()) {
+                    Thread.sleep(pausa.toMillis());
+                }
+            }
+        } catch (InterruptedException e) { // Aplicacao encerrando: a operacao continua EXECUTANDO e sera retomada
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) { // O bloco com erro foi desfeito; os anteriores continuam confirmados
+            operacoes.finalizar(id, instancia, OperacaoLote.Status.FALHOU, e.getMessage());
+        }
+    }
+
+    // Roda na transacao do bloco. Retorna null quando nao ha mais nada a fazer nesta instancia
+    private Bloco executarBloco(UUID id) {
+        Optional<OperacaoLote> travada = operacoes.travarParaBloco(id, instancia);
+        if (travada.isEmpty()) {
+            return null;
+        }
+        OperacaoLote operacao = travada.get();
+        if (operacao.isCancelamentoSolicitado()) {
+            operacoes.finalizar(id, instancia, OperacaoLote.Status.CANCELADA, null);
+            return null;
+        }
+        Bloco bloco = executarLote(operacao);
+        if (bloco.ultimoId() == null) { // Nenhum livro depois do ultimo id: terminou
+            operacoes.finalizar(id, instancia, OperacaoLote.Status.CONCLUIDA, null);
+            return null;
+        }
+        operacoes.registrarBloco(id, bloco.quantidade(), bloco.ultimoId());
+        return bloco;
+    }
+
+    private Bloco executarLote(OperacaoLote operacao) {
+        return switch (operacao.getTipo()) {
+            case ATUALIZAR_DATA_PUBLICACAO -> { // So a data muda: as estatisticas por genero nao sao afetadas
+                LivroRepository.ResultadoLote resultado = livroRepository.atualizarDataDePublicacaoEmLote(
+                        LocalDate.parse(operacao.getParametro()), operacao.getUltimoId(), tamanhoLote);
+                yield new Bloco(resultado.getQuantidade(), resultado.getUltimoId(), null, Map.of());
+            }
+            case EXCLUIR_POR_GENERO -> excluirLote(GeneroLivro.valueOf(operacao.getParametro()), operacao.getUltimoId());
+        };
+    }
+
+    // Os precos sao repassados ao catalogo so depois do commit do bloco (em executar)
+    private Bloco excluirLote(GeneroLivro genero, UUID ultimoId) {
+        List<LivroRepository.PrecoExcluido> linhas = livroRepository.excluirPorGeneroEmLote(genero.name(), ultimoId, tamanhoLote);
+        if (linhas.isEmpty()) {
+            return new Bloco(0, null, genero, Map.of());
+        }
+        long quantidade = 0;
+        Map<BigDecimal, Long> quantidadePorPreco = new HashMap<>(); // Aceita a chave nula dos livros sem preco
+        for (LivroRepository.PrecoExcluido linha : linhas) {
+            if (linha.getQuantidade() != null) {
+                quantidade += linha.getQuantidade();
+                quantidadePorPreco.put(linha.getPreco(), linha.getQuantidade());
+            }
+        }
+        return new Bloco(quantidade, linhas.get(0).getUltimoId(), genero, quantidadePorPreco);
+    }
+
+    // Resultado de um bloco: ultimoId e nulo quando nao ha mais livros a processar
+    private record Bloco(long quantidade, UUID ultimoId, GeneroLivro genero, Map<BigDecimal, Long> excluidosPorPreco) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.cursoudemy.libraryapi.service.lote;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Estado de uma operacao em lote sobre a tabela livro, lido da tabela operacao_lote (OperacoesLote).
+ * O ultimoId e a posicao do keyset: tudo ate ele ja foi processado e confirmado na mesma transacao que o gravou,
+ * entao uma operacao cancelada, com falha ou interrompida por uma queda pode ser retomada a partir dele sem repetir
+ * nem pular livros.
+ */
+public class OperacaoLote {
+
+    public enum Tipo { ATUALIZAR_DATA_PUBLICACAO, EXCLUIR_POR_GENERO }
+
+    public enum Status { EXECUTANDO, CONCLUIDA, CANCELADA, FALHOU }
+
+    // Menor UUID possivel: o primeiro bloco comeca em "id > 00000000-..."
+    static final UUID INICIO = new UUID(0, 0);
+
+    private final UUID id;
+    private final Tipo tipo;
+    private final String parametro; // Data de publicacao (ISO) ou genero, conforme o tipo
+    private final Status status;
+    private final long totalPrevisto; // Contagem feita no inicio; apenas para o percentual de progresso
+    private final long processados;
+    private final long lotes;
+    private final UUID ultimoId;
+    private final boolean cancelamentoSolicitado; // Lido pela instancia que executa antes de cada bloco
+    private final String erro;
+    private final LocalDateTime criadaEm;
+    private final LocalDateTime finalizadaEm;
+
+    OperacaoLote(UUID id, Tipo tipo, String parametro, Status status, long totalPrevisto, long processados, long lotes,
+                 UUID ultimoId, boolean cancelamentoSolicitado, String erro, LocalDateTime criadaEm, LocalDateTime finalizadaEm) {
+        this.id = id;
+        this.tipo = tipo;
+        this.parametro = parametro;
+        this.status = status;
+        this.totalPrevisto = totalPrevisto;
+        this.processados = processados;
+        this.lotes = lotes;
+        this.ultimoId = ultimoId;
+        this.cancelamentoSolicitado = cancelamentoSolicitado;
+        this.erro = erro;
+        this.criadaEm = criadaEm;
+        this.finalizadaEm = finalizadaEm;
+    }
+
+    boolean isCancelamentoSolicitado() {
+        return cancelamentoSolicitado;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public long getTotalPrevisto() {
+        return totalPrevisto;
+    }
+
+    public long getProcessados() {
+        return processados;
+    }
+
+    public long getLotes() {
+        return lotes;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public UUID getUltimoId() {
+        return ultimoId;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public LocalDateTime getCriadaEm() {
+        return criadaEm;
+    }
+
+    public LocalDateTime getFinalizadaEm() {
+        return finalizadaEm;
+    }
+}
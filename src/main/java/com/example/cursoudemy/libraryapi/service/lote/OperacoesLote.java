@@ -0,0 +1,115 @@
+package com.example.cursoudemy.libraryapi.service.lote;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Acesso a tabela operacao_lote (comandos_slq.txt) com JdbcTemplate.
+ * Cada operacao pertence a uma instancia (executor); somente ela grava os blocos, e so enquanto a linha continuar
+ * EXECUTANDO e em seu nome. O indice unico parcial ux_operacao_lote_ativa rejeita uma segunda operacao ativa
+ * com o mesmo (tipo, parametro) com DuplicateKeyException.
+ */
+@Component
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+class OperacoesLote {
+
+    private static final String COLUNAS = """
+            id, tipo, parametro, status, total_previsto, processados, lotes, ultimo_id, cancelamento_solicitado,
+            erro, criada_em, finalizada_em
+            """;
+
+    private static final RowMapper<OperacaoLote> MAPEADOR = (linha, numero) -> new OperacaoLote(
+            linha.getObject("id", UUID.class),
+            OperacaoLote.Tipo.valueOf(linha.getString("tipo")),
+            linha.getString("parametro"),
+            OperacaoLote.Status.valueOf(linha.getString("status")),
+            linha.getLong("total_previsto"),
+            linha.getLong("processados"),
+            linha.getLong("lotes"),
+            linha.getObject("ultimo_id", UUID.class),
+            linha.getBoolean("cancelamento_solicitado"),
+            linha.getString("erro"),
+            linha.getObject("criada_em", LocalDateTime.class),
+            linha.getObject("finalizada_em", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    void inserir(UUID id, OperacaoLote.Tipo tipo, String parametro, long totalPrevisto, UUID executor) {
+        jdbcTemplate.update("""
+                insert into operacao_lote (id, tipo, parametro, status, total_previsto, ultimo_id, executor, criada_em, atualizada_em)
+                values (?, ?, ?, 'EXECUTANDO', ?, ?, ?, localtimestamp, localtimestamp)
+                """, id, tipo.name(), parametro, totalPrevisto, OperacaoLote.INICIO, executor);
+    }
+
+    Optional<OperacaoLote> buscar(UUID id) {
+        return jdbcTemplate.query("select " + COLUNAS + " from operacao_lote where id = ?", MAPEADOR, id)
+                .stream()
+                .findFirst();
+    }
+
+    List<OperacaoLote> listarRecentes(int limite) {
+        return jdbcTemplate.query("select " + COLUNAS + " from operacao_lote order by criada_em desc limit ?", MAPEADOR, limite);
+    }
+
+    // Deve rodar na transacao do bloco: trava a linha ate o commit, entao cancelamento e troca de dono esperam o bloco terminar.
+    // Vazio quando a operacao terminou ou foi assumida por outra instancia
+    Optional<OperacaoLote> travarParaBloco(UUID id, UUID executor) {
+        return jdbcTemplate.query("select " + COLUNAS + """
+                from operacao_lote
+                where id = ? and executor = ? and status = 'EXECUTANDO'
+                for update
+                """, MAPEADOR, id, executor)
+                .stream()
+                .findFirst();
+    }
+
+    // Na mesma transacao do bloco: a posicao gravada nunca fica a frente (nem atras) do que foi confirmado
+    void registrarBloco(UUID id, long quantidade, UUID ultimoId) {
+        jdbcTemplate.update("""
+                update operacao_lote
+                set processados = processados + ?, lotes = lotes + 1, ultimo_id = ?, atualizada_em = localtimestamp
+                where id = ?
+                """, quantidade, ultimoId, id);
+    }
+
+    void finalizar(UUID id, UUID executor, OperacaoLote.Status status, String erro) {
+        jdbcTemplate.update("""
+                update operacao_lote
+                set status = ?, erro = ?, finalizada_em = localtimestamp, atualizada_em = localtimestamp
+                where id = ? and executor = ? and status = 'EXECUTANDO'
+                """, status.name(), erro, id, executor);
+    }
+
+    boolean solicitarCancelamento(UUID id) { // A instancia dona encerra a operacao antes do proximo bloco
+        return jdbcTemplate.update(
+                "update operacao_lote set cancelamento_solicitado = true where id = ? and status = 'EXECUTANDO'", id) > 0;
+    }
+
+    boolean retomar(UUID id, UUID executor) { // Somente operacoes interrompidas podem continuar de onde pararam
+        return jdbcTemplate.update("""
+                update operacao_lote
+                set status = 'EXECUTANDO', cancelamento_solicitado = false, erro = null, finalizada_em = null,
+                    executor = ?, atualizada_em = localtimestamp
+                where id = ? and status in ('CANCELADA', 'FALHOU')
+                """, executor, id) > 0;
+    }
+
+    // Operacoes EXECUTANDO sem bloco confirmado ha mais de expiracao: a instancia dona caiu. Assume-as para o executor.
+    // O relogio e o do banco, o mesmo que grava atualizada_em
+    List<UUID> assumirAbandonadas(UUID executor, Duration expiracao) {
+        return jdbcTemplate.queryForList("""
+                update operacao_lote
+                set executor = ?, atualizada_em = localtimestamp
+                where status = 'EXECUTANDO' and atualizada_em < localtimestamp - make_interval(secs => ?)
+                returning id
+                """, UUID.class, executor, (double) expiracao.toSeconds());
+    }
+}
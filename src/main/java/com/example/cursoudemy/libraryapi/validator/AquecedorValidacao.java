@@ -0,0 +1,115 @@
+package com.example.cursoudemy.libraryapi.validator;
+
+import jakarta.validation.MessageInterpolator;
+import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
+import jakarta.validation.Validator;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import jakarta.validation.metadata.ContainerElementTypeDescriptor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Prepara o Bean Validation quando a aplicacao sobe, em vez de na primeira requisicao de cada endpoint:
+ * para cada DTO recebido com @Valid/@Validated nos controllers, e para os DTOs validados em cascata a partir dele,
+ * monta os metadados das restricoes (getConstraintsForClass) e interpola as mensagens no idioma padrao, preenchendo o InterpoladorMensagemCache.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor // Gera um construtor com argumentos para todos os campos finais (final) com Lombok
+public class AquecedorValidacao {
+
+    private final Validator validator;
+
+    private final InterpoladorMensagemCache interpolador;
+
+    private final RequestMappingHandlerMapping requestMappingHandlerMapping; // Mapeamentos dos metodos dos @RestController
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        Set<Class<?>> parametros = new LinkedHashSet<>();
+        requestMappingHandlerMapping.getHandlerMethods().values().forEach(metodo -> Arrays.stream(metodo.getMethodParameters())
+                .filter(AquecedorValidacao::validado)
+                .forEach(parametro -> parametros.add(parametro.getParameterType())));
+
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        parametros.forEach(classe -> aquecer(classe, classes));
+        log.info("Bean Validation preparado para {} classes; {} mensagens interpoladas", classes.size(), interpolador.getTamanho());
+    }
+
+    // Aquece a classe e, seguindo o BeanDescriptor, as classes validadas em cascata: propriedades com @Valid e
+    // elementos de containers (ex.: LivroCadastroDTO em AutorComLivrosCadastroDTO.livros, List<@Valid LivroCadastroDTO>)
+    private void aquecer(Class<?> classe, Set<Class<?>> aquecidas) {
+        if (!aquecidas.add(classe)) { // Ja aquecida, ou ciclo entre DTOs
+            return;
+        }
+        validator.getConstraintsForClass(classe) // Monta e guarda os metadados da classe
+                .getConstrainedProperties()
+                .forEach(propriedade -> {
+                    propriedade.getConstraintDescriptors().forEach(this::interpolar);
+                    if (propriedade.isCascaded()) {
+                        aquecer(propriedade.getElementClass(), aquecidas);
+                    }
+                    aquecerElementos(propriedade.getConstrainedContainerElementTypes(), aquecidas);
+                });
+    }
+
+    private void aquecerElementos(Set<ContainerElementTypeDescriptor> elementos, Set<Class<?>> aquecidas) {
+        elementos.forEach(elemento -> {
+            elemento.getConstraintDescriptors().forEach(this::interpolar); // Ex.: List<@NotNull ...>
+            if (elemento.isCascaded()) {
+                aquecer(elemento.getElementClass(), aquecidas);
+            }
+            aquecerElementos(elemento.getConstrainedContainerElementTypes(), aquecidas); // Containers aninhados
+        });
+    }
+
+    // Interpola a mensagem da restricao como o Hibernate Validator faria na primeira violacao
+    private void interpolar(ConstraintDescriptor<?> restricao) {
+        String template = restricao.getMessageTemplate();
+        if (template.contains("${")) { // Depende do valor validado; nao e guardada pelo InterpoladorMensagemCache
+            return;
+        }
+        try {
+            interpolador.interpolate(template, new ContextoAquecimento(restricao), Locale.getDefault());
+        } catch (RuntimeException e) { // O aquecimento e so uma otimizacao: a mensagem sera interpolada na primeira violacao
+            log.debug("Mensagem de validacao nao pre-interpolada: {}", template, e);
+        }
+    }
+
+    private static boolean validado(MethodParameter parametro) {
+        return parametro.hasParameterAnnotation(Valid.class) || parametro.hasParameterAnnotation(Validated.class);
+    }
+
+    // Contexto de interpolacao sem valor validado, suficiente para templates com parametros ({min}, {max}) e sem EL
+    private record ContextoAquecimento(ConstraintDescriptor<?> restricao) implements MessageInterpolator.Context {
+        @Override
+        public ConstraintDescriptor<?> getConstraintDescriptor() {
+            return restricao;
+        }
+
+        @Override
+        public Object getValidatedValue() {
+            return null;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) {
+            if (type.isInstance(this)) {
+                return type.cast(this);
+            }
+            throw new ValidationException("Contexto de aquecimento nao suporta unwrap para " + type.getName());
+        }
+    }
+}
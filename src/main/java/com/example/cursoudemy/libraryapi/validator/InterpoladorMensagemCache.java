@@ -0,0 +1,52 @@
+package com.example.cursoudemy.libraryapi.validator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.validation.MessageInterpolator;
+import jakarta.validation.metadata.ConstraintDescriptor;
+
+import java.util.Locale;
+
+/**
+ * MessageInterpolator que guarda as mensagens ja interpoladas por (template, restricao, locale).
+ * As mensagens de AutorDTO ("O nome do autor nao pode ser vazio", "... entre {min} e {max} ...") dependem somente do
+ * template, dos atributos da restricao e do idioma, entao sao resolvidas uma unica vez em vez de a cada violacao.
+ * Templates com expressoes EL (${...}) podem usar o valor validado e sempre passam pelo interpolador original.
+ * O locale vem do cabecalho Accept-Language da requisicao (LocaleContextMessageInterpolator), que o cliente escolhe
+ * livremente; por isso o cache tem tamanho maximo em vez de crescer com cada idioma recebido.
+ */
+public class InterpoladorMensagemCache implements MessageInterpolator {
+
+    private final MessageInterpolator delegado; // Interpolador do Spring Boot (mensagens do MessageSource + Hibernate Validator)
+
+    private static final int TAMANHO_MAXIMO = 10_000; // Restricoes das classes validadas x idiomas realmente usados, com folga
+
+    private final Cache<Chave, String> mensagens = Caffeine.newBuilder()
+            .maximumSize(TAMANHO_MAXIMO) // Idiomas arbitrarios no Accept-Language so descartam as entradas menos usadas
+            .build();
+
+    public InterpoladorMensagemCache(MessageInterpolator delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public String interpolate(String messageTemplate, Context context) {
+        return interpolate(messageTemplate, context, Locale.getDefault());
+    }
+
+    @Override
+    public String interpolate(String messageTemplate, Context context, Locale locale) {
+        if (messageTemplate.contains("${")) { // Expressao EL: o resultado pode variar com o valor validado
+            return delegado.interpolate(messageTemplate, context, locale);
+        }
+        return mensagens.get(new Chave(messageTemplate, context.getConstraintDescriptor(), locale),
+                chave -> delegado.interpolate(messageTemplate, context, locale));
+    }
+
+    public long getTamanho() { // Quantidade de mensagens ja interpoladas
+        return mensagens.estimatedSize();
+    }
+
+    private record Chave(String template, ConstraintDescriptor<?> restricao, Locale locale) {
+    }
+}
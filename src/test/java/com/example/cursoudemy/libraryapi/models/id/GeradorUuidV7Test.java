@@ -0,0 +1,68 @@
+package com.example.cursoudemy.libraryapi.models.id; // Define o pacote do gerador de ids testado
+
+import org.junit.jupiter.api.Test; // Importa a anotação @Test do JUnit 5 para definir métodos de teste
+
+import java.util.ArrayList; // Importa ArrayList para guardar as tarefas concorrentes
+import java.util.List; // Importa List para armazenar os ids gerados
+import java.util.Set; // Importa Set para verificar unicidade
+import java.util.UUID; // Importa UUID, tipo gerado pelo GeradorUuidV7
+import java.util.concurrent.ConcurrentHashMap; // Importa o mapa concorrente usado como conjunto thread-safe
+import java.util.concurrent.ExecutorService; // Importa o executor que dispara threads em paralelo
+import java.util.concurrent.Executors; // Importa a fábrica de executores
+import java.util.concurrent.Future; // Importa Future para aguardar as threads
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Importa as asserções do JUnit 5
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe de teste para o GeradorUuidV7, sem contexto do Spring e sem banco de dados.
+ * Verifica o formato da RFC 9562 (versão 7 e variante), a ordem crescente dentro da mesma thread
+ * e a ausência de ids repetidos quando várias threads geram ao mesmo tempo.
+ */
+public class GeradorUuidV7Test {
+
+    @Test
+    void formatoVersao7Test() {
+        UUID id = GeradorUuidV7.gerar(); // Gera um id
+        assertEquals(7, id.version()); // Versão 7 (ordenado pelo tempo)
+        assertEquals(2, id.variant()); // Variante da RFC 9562 (bits 10)
+
+        long milissegundo = id.getMostSignificantBits() >>> 16; // Os 48 bits mais significativos são o instante da geração
+        assertTrue(Math.abs(System.currentTimeMillis() - milissegundo) < 1000); // Próximo do relógio atual
+    }
+
+    @Test
+    void monotonicoNaMesmaThreadTest() {
+        UUID anterior = GeradorUuidV7.gerar();
+        for (int i = 0; i < 100_000; i++) { // Muitos ids caem no mesmo milissegundo e dependem do contador
+            UUID atual = GeradorUuidV7.gerar();
+            // Compara sem sinal, como o PostgreSQL ordena a coluna uuid
+            assertTrue(Long.compareUnsigned(atual.getMostSignificantBits(), anterior.getMostSignificantBits()) > 0);
+            anterior = atual;
+        }
+    }
+
+    @Test
+    void unicoEntreThreadsTest() throws Exception {
+        int threads = 8; // Quantidade de threads gerando ao mesmo tempo
+        int porThread = 50_000; // Ids gerados por thread
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < porThread; i++) {
+                        ids.add(GeradorUuidV7.gerar());
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(); // Propaga qualquer erro das threads
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * porThread, ids.size()); // Nenhum id repetido
+    }
+}
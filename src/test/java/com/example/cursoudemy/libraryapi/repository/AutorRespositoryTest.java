@@ -1,20 +1,30 @@
 package com.example.cursoudemy.libraryapi.repository; // Define o pacote do repositório de testes
 
+import com.example.cursoudemy.libraryapi.controller.dto.AutorComLivrosDTO;
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO;
 import com.example.cursoudemy.libraryapi.models.Autor; // Importa a entidade Autor para testes de CRUD
 import com.example.cursoudemy.libraryapi.models.GeneroLivro; // Importa o enum GeneroLivro para definir gêneros em livros associados
 import com.example.cursoudemy.libraryapi.models.Livro; // Importa a entidade Livro para testes de relacionamentos
+import com.example.cursoudemy.libraryapi.service.AutorService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test; // Importa a anotação @Test do JUnit 5 para definir métodos de teste
 import org.springframework.beans.factory.annotation.Autowired; // Permite injeção automática de dependências do Spring
 import org.springframework.boot.test.context.SpringBootTest; // Inicializa o contexto completo do Spring Boot para testes integrados
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional; // Importa anotação para gerenciar transações em testes
 
 import java.math.BigDecimal; // Importa BigDecimal para manipulação precisa de valores monetários
 import java.time.LocalDate; // Importa LocalDate para trabalhar com datas de nascimento e publicação
+import java.time.LocalDateTime;
 import java.util.ArrayList; // Importa ArrayList para criar listas mutáveis de livros
 import java.util.List; // Importa List para armazenar coleções de entidades
 import java.util.Optional; // Importa Optional para representar valores que podem ou não estar presentes
 import java.util.UUID; // Importa UUID para identificadores únicos de entidades
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 /**
  * Classe de teste para o AutorRepository, demonstrando operações CRUD em entidades Autor e seus relacionamentos com Livro.
  * Cada teste valida funcionalidades como salvar, atualizar, listar, contar e deletar autores, além de cascata em relacionamentos
@@ -29,6 +39,12 @@ public class AutorRespositoryTest { // Classe de teste para o repositório Autor
     @Autowired // Injeta o repositório de Livro para testes de relacionamentos
     LivroRepository livroRepository; // Repositório para operações com Livro
 
+    @Autowired // Acesso as estatisticas do Hibernate (contagem de comandos SQL)
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired // Servico usado por GET /autores/com-livros
+    AutorService autorService;
+
     /**
      * Teste para demonstrar a operação de salvar (persistir) um novo autor no banco de dados.
      * Cria uma instância de Autor (estado Transient), define atributos e salva.
@@ -148,4 +164,80 @@ public class AutorRespositoryTest { // Classe de teste para o repositório Autor
 
         autor.getLivros().forEach(System.out::println); // Exibe cada livro do autor
     }
+
+    /**
+     * Teste do carregamento em lote da colecao Autor.livros (LAZY com @BatchSize).
+     * Ao acessar os livros do primeiro autor, o Hibernate inicializa de uma vez as colecoes de todos os autores
+     * da pagina com um unico "where id_autor in (...)", em vez de uma consulta por autor (N+1).
+     */
+    @Test
+    @Transactional(readOnly = true) // Mantem a sessao aberta para inicializar as colecoes LAZY
+    void livrosDeVariosAutoresEmUmaConsultaTest() {
+        List<Autor> autores = repository.findAll(PageRequest.of(0, 20)).getContent(); // Ate 20 autores, menos que o @BatchSize
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear(); // Conta apenas os comandos disparados pelo acesso aos livros
+        autores.forEach(autor -> System.out.println(autor.getNome() + " - " + autor.getLivros().size() + " livro(s)"));
+
+        assertEquals(autores.isEmpty() ? 0 : 1, estatisticas.getPrepareStatementCount()); // Uma consulta para os livros de todos os autores
+    }
+
+    /**
+     * Teste do caminho usado por GET /autores/com-livros: AutorService.carregarLivros busca os livros de todos os autores
+     * da pagina com um unico comando (projecao com "where id_autor in (...)"), qualquer que seja o tamanho da pagina.
+     */
+    @Test
+    void livrosDaPaginaDeAutoresEmUmaConsultaTest() {
+        List<AutorDTO> autores = autorService.pesquisaPaginada(null, null, null, null, 20); // Primeira pagina, como o endpoint
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear(); // Conta apenas os comandos de carregarLivros
+        List<AutorComLivrosDTO> comLivros = autorService.carregarLivros(autores);
+
+        assertEquals(autores.size(), comLivros.size());
+        assertEquals(autores.isEmpty() ? 0 : 1, estatisticas.getPrepareStatementCount()); // Uma consulta para os livros de todos os autores
+    }
+
+    /**
+     * Teste do resumo de livros por autor (GET /autores/resumo): quantidade, ultima publicacao e valor total
+     * de uma pagina de autores vem de um unico comando com GROUP BY, qualquer que seja o tamanho da pagina.
+     */
+    @Test
+    void resumoDeUmaPaginaEmUmaConsultaTest() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        List<AutorRepository.AutorResumo> resumos = repository.resumirPagina("", new UUID(0, 0), 20); // Primeira pagina
+        resumos.forEach(r -> System.out.println(r.getNome() + ": " + r.getQuantidadeLivros() + " livro(s), ultima publicacao "
+                + r.getUltimaPublicacao() + ", valor total " + r.getValorTotal()));
+
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    /**
+     * Teste da sincronizacao incremental (GET /autores/alteracoes): um autor salvo aparece como alterado depois da marca
+     * e, apos a exclusao, a trigger grava a lapide e o mesmo id passa a aparecer como excluido.
+     */
+    @Test
+    void alteracoesComLapideTest() {
+        LocalDateTime marca = LocalDateTime.now().minusSeconds(1);
+        Autor autor = new Autor();
+        autor.setNome("Autor Sincronizado " + UUID.randomUUID().toString().substring(0, 8));
+        autor.setNacionalidade("Brasileira");
+        autor.setDataNascimento(LocalDate.of(1970, 7, 7));
+        repository.save(autor);
+
+        LocalDateTime ate = LocalDateTime.now().plusMinutes(1);
+        var alterado = repository.buscarAlteracoes(marca, new UUID(0, 0), ate, 1000).stream()
+                .filter(a -> a.getId().equals(autor.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(false, alterado.getExcluido());
+
+        repository.deleteById(autor.getId());
+        var excluido = repository.buscarAlteracoes(marca, new UUID(0, 0), ate, 1000).stream()
+                .filter(a -> a.getId().equals(autor.getId()))
+                .findFirst().orElseThrow();
+        System.out.println("Lapide: " + excluido.getId() + " excluido em " + excluido.getDataAlteracao());
+        assertEquals(true, excluido.getExcluido());
+    }
 }
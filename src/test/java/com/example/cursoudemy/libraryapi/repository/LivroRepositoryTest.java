@@ -3,6 +3,12 @@ package com.example.cursoudemy.libraryapi.repository; // Define o pacote do repo
 import com.example.cursoudemy.libraryapi.models.Autor; // Importa a classe Autor para associações em testes
 import com.example.cursoudemy.libraryapi.models.GeneroLivro; // Importa o enum GeneroLivro para filtros e validações
 import com.example.cursoudemy.libraryapi.models.Livro; // Importa a classe Livro, entidade principal dos testes
+import jakarta.persistence.EntityManager; // Importa o EntityManager para limpar o persistence context
+import jakarta.persistence.EntityManagerFactory; // Importa a fabrica de EntityManager para acessar as estatisticas do Hibernate
+import jakarta.persistence.PersistenceContext; // Importa a anotacao que injeta o EntityManager da transacao
+import org.hibernate.Hibernate; // Importa o utilitario que informa se uma associacao LAZY ja foi carregada
+import org.hibernate.SessionFactory; // Importa a SessionFactory do Hibernate (unwrap da EntityManagerFactory)
+import org.hibernate.stat.Statistics; // Importa as estatisticas do Hibernate (contagem de comandos SQL)
 import org.springframework.beans.factory.annotation.Autowired; // Importa a anotação para injeção de dependências do Spring
 import org.springframework.boot.test.context.SpringBootTest; // Importa a anotação para configurar testes com contexto Spring Boot
 import org.springframework.transaction.annotation.Transactional; // Importa a anotação para gerenciar transações em testes
@@ -14,6 +20,10 @@ import java.util.UUID; // Importa UUID para identificadores únicos de entidades
 
 import org.junit.jupiter.api.Test; // Importa a anotação @Test do JUnit 5 para definir métodos de teste
 
+import static org.junit.jupiter.api.Assertions.assertEquals; // Importa a asserção de igualdade do JUnit 5
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * Classe de teste para o LivroRepository, demonstrando operações CRUD e consultas customizadas com Spring Data JPA.
  * Cada teste valida funcionalidades como salvar, atualizar, deletar e buscar livros, ilustrando conceitos como
@@ -29,6 +39,12 @@ public class LivroRepositoryTest {
     @Autowired // Injeta o repositório de Autor para buscar autores associados aos livros
     AutorRepository autores;
 
+    @Autowired // Injeta a fabrica de EntityManager para ler as estatisticas do Hibernate (hibernate.generate_statistics)
+    EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext // Injeta o EntityManager da transacao do teste
+    EntityManager entityManager;
+
     /**
      * Teste para demonstrar a operação de salvar (persistir) um novo livro no banco de dados.
      * Cria uma instância de Livro, define seus atributos e associa a um autor existente.
@@ -205,4 +221,36 @@ public class LivroRepositoryTest {
     void updateDataPublicacaoTest() {
         repository.atualizarDataDePublicacaoDeLivros(LocalDate.of(2020, 03, 12)); // Atualiza data de todos os livros
     }
+
+    /**
+     * Teste da paginacao por keyset do catalogo (GET /livros): a pagina e os autores dos livros vem em uma unica consulta
+     * (join fetch), sem o N+1 de carregar Livro.autor (LAZY) livro a livro.
+     */
+    @Test
+    @Transactional // Mantem a sessao aberta para acessar os autores; o livro cadastrado aqui e desfeito no fim do teste
+    void paginaPorTituloComAutorEmUmaConsultaTest() {
+        Autor autor = new Autor();
+        autor.setNome("Autor Pagina Titulo");
+        autor.setNacionalidade("Brasileira");
+        autor.setDataNascimento(LocalDate.of(1975, 5, 5));
+        Livro livro = new Livro();
+        livro.setIsbn("222-22-22222-22-0");
+        livro.setTitulo("A Pagina por Titulo"); // Garante ao menos um livro na primeira pagina
+        livro.setDataPublicacao(LocalDate.of(2010, 1, 1));
+        livro.setGenero(GeneroLivro.FICCAO);
+        livro.setPreco(BigDecimal.valueOf(50));
+        livro.setAutor(autores.save(autor));
+        repository.saveAndFlush(livro);
+        entityManager.clear(); // Sem entidades no persistence context: o autor tem de vir da propria consulta
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear(); // Zera a contagem de comandos SQL
+
+        List<Livro> pagina = repository.pesquisarPaginaPorTitulo(null, 50); // Primeira pagina com ate 50 livros
+
+        assertFalse(pagina.isEmpty());
+        // Inicializado pelo join fetch; sem ele seria um proxy, mesmo com o autor no cache de segundo nivel
+        pagina.forEach(l -> assertTrue(Hibernate.isInitialized(l.getAutor())));
+        assertEquals(1, estatisticas.getPrepareStatementCount()); // Uma unica consulta, qualquer que seja o tamanho da pagina
+    }
 }
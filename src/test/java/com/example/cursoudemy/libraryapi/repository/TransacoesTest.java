@@ -1,11 +1,27 @@
 package com.example.cursoudemy.libraryapi.repository; // Define o pacote do repositório de testes
 
+import com.example.cursoudemy.libraryapi.models.Autor; // Importa a entidade Autor cadastrada com livros
+import com.example.cursoudemy.libraryapi.models.GeneroLivro; // Importa o enum de generos
+import com.example.cursoudemy.libraryapi.models.Livro; // Importa a entidade Livro
+import com.example.cursoudemy.libraryapi.service.AutorComLivrosService; // Importa o servico de cadastro de autor com livros
 import com.example.cursoudemy.libraryapi.service.TransacaoService; // Importa o serviço responsável pelas operações de transação
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test; // Importa a anotação @Test do JUnit 5 para definir métodos de teste
 import org.springframework.beans.factory.annotation.Autowired; // Permite injeção automática de dependências do Spring
 import org.springframework.boot.test.context.SpringBootTest; // Inicializa o contexto completo do Spring Boot para testes integrados
 import org.springframework.transaction.annotation.Transactional; // Importa anotação para gerenciar transações em testes
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * Classe de teste para o TransacaoService, demonstrando operações de transação no contexto do Spring.
  * Cada teste valida funcionalidades como execução de transações simples, rollback em caso de erro e estados de entidades gerenciadas.
@@ -17,6 +33,18 @@ public class TransacoesTest { // Classe de teste para operações de transação
     @Autowired // Injeta o serviço de transação para executar operações transacionais
     TransacaoService transacaoService; // Serviço responsável pelas operações de transação
 
+    @Autowired
+    AutorComLivrosService autorComLivrosService;
+
+    @Autowired
+    AutorRepository autorRepository;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Autowired // Acesso as estatisticas do Hibernate (contagem de comandos SQL)
+    EntityManagerFactory entityManagerFactory;
+
     /**
      * Begin -> Inicia uma transação
      * Commit -> Confirma a transação
@@ -49,4 +77,57 @@ public class TransacoesTest { // Classe de teste para operações de transação
     void transacaoEstadoManaged() { // Testa atualização em estado Managed sem save explícito
         transacaoService.atualizacaoSemAtualizar(); // Executa a atualização e valida o estado Managed
     }
+
+    /**
+     * Teste do cadastro de autor com livros (AutorComLivrosService): o autor e os livros sao apenas persistidos e
+     * o unico flush acontece no commit, com um INSERT em batch para o autor e outro para os livros.
+     */
+    @Test
+    void cadastroAutorComLivrosEmBatchTest() {
+        Autor autor = novoAutor();
+        List<Livro> livros = List.of(novoLivro("978-00-00000-00-1"), novoLivro("978-00-00000-00-2"), novoLivro("978-00-00000-00-3"));
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+        autorComLivrosService.cadastrar(autor, livros);
+        try {
+            assertEquals(2, estatisticas.getPrepareStatementCount()); // Um comando por entidade, nao um por linha
+            assertEquals(3, livroRepository.findByAutor(autor).size());
+        } finally {
+            livroRepository.deleteAll(livroRepository.findByAutor(autor));
+            autorRepository.deleteById(autor.getId());
+        }
+    }
+
+    /**
+     * Teste do rollback do cadastro de autor com livros: um livro recusado pelo banco (ISBN maior que a coluna)
+     * desfaz tambem o autor e os livros validos, como em executarTransacao.
+     */
+    @Test
+    void cadastroAutorComLivrosRollbackTest() {
+        Autor autor = novoAutor();
+        List<Livro> livros = List.of(novoLivro("978-00-00000-00-4"), novoLivro("ISBN-MAIOR-QUE-VINTE-CARACTERES"));
+
+        assertThrows(RuntimeException.class, () -> autorComLivrosService.cadastrar(autor, livros));
+        assertTrue(autorRepository.findByNomeAndDataNascimentoAndNacionalidade(
+                autor.getNome(), autor.getDataNascimento(), autor.getNacionalidade()).isEmpty()); // Nada foi gravado
+    }
+
+    private Autor novoAutor() {
+        Autor autor = new Autor();
+        autor.setNome("Autor com Livros " + UUID.randomUUID().toString().substring(0, 8)); // Nome unico a cada execucao
+        autor.setNacionalidade("Brasileira");
+        autor.setDataNascimento(LocalDate.of(1960, 2, 2));
+        return autor;
+    }
+
+    private Livro novoLivro(String isbn) {
+        Livro livro = new Livro();
+        livro.setIsbn(isbn);
+        livro.setTitulo("Livro em batch " + isbn);
+        livro.setDataPublicacao(LocalDate.of(2010, 3, 3));
+        livro.setGenero(GeneroLivro.ROMANCE);
+        livro.setPreco(BigDecimal.valueOf(30));
+        return livro;
+    }
 }
@@ -0,0 +1,91 @@
+package com.example.cursoudemy.libraryapi.repository; // Define o pacote do repositório de testes
+
+import com.example.cursoudemy.libraryapi.models.id.GeradorUuidV7; // Importa o gerador de UUID versão 7 comparado no benchmark
+import org.junit.jupiter.api.Test; // Importa a anotação @Test do JUnit 5 para definir métodos de teste
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty; // Permite executar o benchmark somente quando pedido
+import org.springframework.beans.factory.annotation.Autowired; // Permite injeção automática de dependências do Spring
+import org.springframework.boot.test.context.SpringBootTest; // Inicializa o contexto completo do Spring Boot para testes integrados
+import org.springframework.jdbc.core.JdbcTemplate; // Importa o JdbcTemplate para os INSERTs em lote via JDBC
+
+import java.sql.Date; // Importa Date para a coluna data_nascimento/data_publicacao
+import java.util.ArrayList; // Importa ArrayList para montar os lotes de parâmetros
+import java.util.List; // Importa List para armazenar os lotes
+import java.util.UUID; // Importa UUID para gerar ids versão 4
+import java.util.function.Supplier; // Importa Supplier para alternar entre os geradores de id
+
+/**
+ * Benchmark (manual) de inserção nas tabelas autor e livro com ids UUID versão 4 (GenerationType.UUID) e versão 7 (@UuidV7).
+ * Para cada tabela cria uma cópia vazia (create table ... like ... including all), insere a mesma quantidade de linhas com cada
+ * gerador e exibe a vazão de inserção e o tamanho final do índice da chave primária.
+ * Executar com: mvn test -Dtest=UuidV7BenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest // Indica que o teste roda com o contexto completo do Spring Boot, incluindo banco de dados
+@EnabledIfSystemProperty(named = "benchmark", matches = "true") // Não roda junto com os outros testes
+public class UuidV7BenchmarkTest {
+
+    private static final int LINHAS = 200_000; // Linhas inseridas por tabela e por gerador
+    private static final int TAMANHO_LOTE = 1_000; // Linhas por batch JDBC
+
+    @Autowired // Injeta o JdbcTemplate configurado com o DataSource da aplicação
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void autorV4VersusV7Test() {
+        medir("autor", "v4", UUID::randomUUID, this::inserirAutores);
+        medir("autor", "v7", GeradorUuidV7::gerar, this::inserirAutores);
+    }
+
+    @Test
+    void livroV4VersusV7Test() {
+        medir("livro", "v4", UUID::randomUUID, this::inserirLivros);
+        medir("livro", "v7", GeradorUuidV7::gerar, this::inserirLivros);
+    }
+
+    // Cria a tabela de benchmark, insere as linhas, exibe vazão e tamanho do índice e remove a tabela
+    private void medir(String tabela, String versao, Supplier<UUID> gerador, Insercao insercao) {
+        String copia = "benchmark_" + tabela + "_" + versao;
+        jdbcTemplate.execute("drop table if exists " + copia);
+        jdbcTemplate.execute("create table " + copia + " (like " + tabela + " including all)"); // Mesmas colunas e índices, sem chaves estrangeiras
+        try {
+            long inicio = System.nanoTime();
+            insercao.inserir(copia, gerador);
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+            Long tamanhoIndice = jdbcTemplate.queryForObject( // Tamanho em bytes do índice da chave primária
+                    "select pg_relation_size(i.indexrelid) from pg_index i where i.indrelid = cast(? as regclass) and i.indisprimary",
+                    Long.class, copia);
+            System.out.printf("%s %s: %.0f linhas/s, indice da chave primaria = %d KB%n",
+                    tabela, versao, LINHAS / segundos, tamanhoIndice / 1024);
+        } finally {
+            jdbcTemplate.execute("drop table " + copia);
+        }
+    }
+
+    private void inserirAutores(String tabela, Supplier<UUID> gerador) {
+        String sql = "insert into " + tabela + " (id, nome, data_nascimento, nacionalidade) values (?, ?, ?, ?)";
+        for (int inicio = 0; inicio < LINHAS; inicio += TAMANHO_LOTE) {
+            List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+            for (int i = inicio; i < inicio + TAMANHO_LOTE; i++) {
+                lote.add(new Object[]{gerador.get(), "Autor " + i, Date.valueOf("1900-01-01"), "Brasileiro"}); // Nome único por causa do índice único
+            }
+            jdbcTemplate.batchUpdate(sql, lote);
+        }
+    }
+
+    private void inserirLivros(String tabela, Supplier<UUID> gerador) {
+        String sql = "insert into " + tabela + " (id, isbn, titulo, data_publicacao, genero, preco, id_autor) values (?, ?, ?, ?, ?, ?, ?)";
+        UUID autor = UUID.randomUUID(); // A cópia não tem chave estrangeira, então o autor não precisa existir
+        for (int inicio = 0; inicio < LINHAS; inicio += TAMANHO_LOTE) {
+            List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+            for (int i = inicio; i < inicio + TAMANHO_LOTE; i++) {
+                lote.add(new Object[]{gerador.get(), "978-" + i, "Livro " + i, Date.valueOf("2000-01-01"), "ROMANCE", 10, autor});
+            }
+            jdbcTemplate.batchUpdate(sql, lote);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Insercao { // Estratégia de inserção de cada tabela
+        void inserir(String tabela, Supplier<UUID> gerador);
+    }
+}
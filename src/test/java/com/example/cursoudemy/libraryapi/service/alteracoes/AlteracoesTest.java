@@ -0,0 +1,124 @@
+package com.example.cursoudemy.libraryapi.service.alteracoes; // Mesmo pacote: acessa o EventosAlteracao (package-private)
+
+import com.example.cursoudemy.libraryapi.controller.dto.AlteracaoDTO; // Importa o DTO dos eventos do outbox
+import com.example.cursoudemy.libraryapi.models.Autor; // Importa a entidade Autor alterada pelo teste
+import com.example.cursoudemy.libraryapi.repository.AutorRepository; // Importa o repositorio de autores
+import org.junit.jupiter.api.Test; // Importa a anotação @Test do JUnit 5 para definir métodos de teste
+import org.springframework.beans.factory.annotation.Autowired; // Permite injeção automática de dependências do Spring
+import org.springframework.boot.test.context.SpringBootTest; // Inicializa o contexto completo do Spring Boot para testes integrados
+import org.springframework.boot.test.web.server.LocalServerPort; // Porta do Tomcat iniciado pelo teste
+import org.springframework.transaction.PlatformTransactionManager; // Transacao da numeracao (trava consultiva)
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Importa as asserções do JUnit 5
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe de teste do outbox de alteracoes (evento_alteracao) e do feed SSE de GET /alteracoes.
+ * Confere que as triggers registram insert, update e delete de um autor, que a numeracao segue a ordem dos commits
+ * e que um cliente que reconecta com uma posicao recebe do banco o que perdeu, ou um "reinicio" quando a posicao
+ * ja saiu da retencao.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT) // Tomcat real: o SSE e lido por HTTP
+public class AlteracoesTest {
+
+    @Autowired
+    EventosAlteracao eventos;
+
+    @Autowired
+    AutorRepository autorRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @LocalServerPort
+    int porta;
+
+    @Test
+    void triggersENumeracaoTest() {
+        long posicaoInicial = eventos.ultimaPosicao();
+        UUID id = criarAlterarEExcluirAutor();
+
+        List<AlteracaoDTO> doAutor = aguardarEventos(posicaoInicial, id, 3);
+        assertEquals(List.of("CRIADO", "ALTERADO", "EXCLUIDO"), doAutor.stream().map(AlteracaoDTO::operacao).toList());
+        assertTrue(doAutor.stream().allMatch(alteracao -> alteracao.entidade().equals("AUTOR")));
+        assertTrue(doAutor.get(0).posicao() < doAutor.get(1).posicao() && doAutor.get(1).posicao() < doAutor.get(2).posicao());
+    }
+
+    @Test
+    void reenvioDesdePosicaoTest() throws Exception {
+        long posicaoInicial = eventos.ultimaPosicao();
+        UUID id = criarAlterarEExcluirAutor();
+        aguardarEventos(posicaoInicial, id, 3); // Ja numerados: chegam pelo reenvio do banco
+
+        List<String> dados = lerFeed(posicaoInicial, linhas -> linhas
+                .filter(linha -> linha.startsWith("data:") && linha.contains(id.toString()))
+                .limit(3)
+                .toList());
+        assertEquals(3, dados.size());
+        assertTrue(dados.get(0).contains("CRIADO") && dados.get(1).contains("ALTERADO") && dados.get(2).contains("EXCLUIDO"));
+    }
+
+    @Test
+    void reinicioQuandoPosicaoFoiApagadaTest() throws Exception {
+        // Posicao anterior a menor retida: os eventos desde ela nao podem ser reenviados
+        long posicaoApagada = eventos.menorPosicaoRetida() - 2;
+
+        String primeiroEvento = lerFeed(posicaoApagada, linhas -> linhas
+                .filter(linha -> linha.startsWith("event:"))
+                .findFirst()
+                .orElseThrow());
+        assertEquals("event:reinicio", primeiroEvento);
+    }
+
+    private UUID criarAlterarEExcluirAutor() {
+        Autor autor = new Autor();
+        autor.setNome("Autor Alteracoes");
+        autor.setNacionalidade("Brasileira");
+        autor.setDataNascimento(LocalDate.of(1960, 6, 6));
+        autor = autorRepository.save(autor); // Insert: evento CRIADO
+        autor.setNome("Autor Alteracoes Renomeado");
+        autor = autorRepository.save(autor); // Update: evento ALTERADO
+        autorRepository.delete(autor); // Delete: evento EXCLUIDO
+        return autor.getId();
+    }
+
+    // Numera os pendentes (o agendador tambem pode estar numerando) ate os eventos do registro aparecerem
+    private List<AlteracaoDTO> aguardarEventos(long desde, UUID idRegistro, int quantidade) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long limite = System.currentTimeMillis() + 10_000;
+        List<AlteracaoDTO> doRegistro;
+        do {
+            transactionTemplate.execute(status -> eventos.travarNumeracao() && eventos.numerarPendentes(1000) > 0);
+            doRegistro = eventos.buscarDesde(desde, 1000).stream()
+                    .filter(alteracao -> alteracao.idRegistro().equals(idRegistro))
+                    .toList();
+        } while (doRegistro.size() < quantidade && System.currentTimeMillis() < limite);
+        assertEquals(quantidade, doRegistro.size());
+        return doRegistro;
+    }
+
+    // Conecta em GET /alteracoes?desde=posicao e entrega as linhas do stream; falha se nada chegar em 10 segundos
+    private <T> T lerFeed(long posicao, Function<Stream<String>, T> leitura) throws Exception {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/alteracoes?desde=" + posicao))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> resposta = HttpClient.newHttpClient().send(requisicao, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, resposta.statusCode());
+        try (Stream<String> linhas = resposta.body()) { // Fechar o stream encerra a conexao SSE
+            return CompletableFuture.supplyAsync(() -> leitura.apply(linhas)).get(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.cursoudemy.libraryapi.service.busca; // Define o pacote do motor de busca testado
+
+import com.example.cursoudemy.libraryapi.controller.dto.AutorDTO; // Importa o DTO retornado pela busca
+import com.example.cursoudemy.libraryapi.models.Autor; // Importa a entidade Autor cadastrada para o teste
+import com.example.cursoudemy.libraryapi.service.AutorService; // Importa o servico que cadastra e pesquisa autores
+import org.junit.jupiter.api.Test; // Importa a anotação @Test do JUnit 5 para definir métodos de teste
+import org.springframework.beans.factory.annotation.Autowired; // Permite injeção automática de dependências do Spring
+import org.springframework.boot.test.context.SpringBootTest; // Inicializa o contexto completo do Spring Boot para testes integrados
+
+import java.time.LocalDate; // Importa LocalDate para a data de nascimento
+import java.util.List; // Importa List para os resultados da busca
+import java.util.UUID; // Importa UUID para gerar um nome unico
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Importa as asserções do JUnit 5
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe de teste da busca por substring com o indice de trigramas em memoria (libraryapi.busca.motor=memoria).
+ * Cadastra um autor pelo AutorService (o AutorCacheInvalidador atualiza o indice), pesquisa sem acentos e sem
+ * diferenciar maiusculas/minusculas e remove o autor no final.
+ */
+@SpringBootTest(properties = "libraryapi.busca.motor=memoria") // Contexto completo com o MotorBuscaAutorMemoria no lugar do Postgres
+public class MotorBuscaAutorMemoriaTest {
+
+    @Autowired // Injeta o servico de autores
+    AutorService service;
+
+    @Autowired // Injeta o motor de busca configurado (MotorBuscaAutorMemoria)
+    MotorBuscaAutor motorBusca;
+
+    @Test
+    void buscaIgnoraAcentosECaixaTest() {
+        String sufixo = UUID.randomUUID().toString().substring(0, 8); // Nome unico para nao colidir com dados existentes
+        Autor autor = new Autor();
+        autor.setNome("Émile Trigrama " + sufixo);
+        autor.setNacionalidade("Britânico");
+        autor.setDataNascimento(LocalDate.of(1900, 1, 1));
+        service.salvar(autor);
+        try {
+            assertTrue(motorBusca instanceof MotorBuscaAutorMemoria);
+
+            List<AutorDTO> encontrados = service.pesquisaPaginada("EMILE TRIGRAMA " + sufixo, "britanico", null, null, 10);
+            System.out.println("Autores encontrados: " + encontrados);
+            assertEquals(1, encontrados.size());
+            assertEquals(autor.getId(), encontrados.get(0).id());
+            assertEquals(1, service.estimarTotal("trigrama " + sufixo, null));
+
+            // Pagina seguinte (keyset apos o unico resultado) vem vazia
+            assertTrue(service.pesquisaPaginada("trigrama " + sufixo, null, autor.getNome(), autor.getId(), 10).isEmpty());
+        } finally {
+            service.deletar(autor.getId()); // O indice tambem remove o autor excluido
+        }
+        assertTrue(service.pesquisaPaginada("trigrama " + sufixo, null, null, null, 10).isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.cursoudemy.libraryapi.service.estatisticas; // Define o pacote das estatisticas testadas
+
+import com.example.cursoudemy.libraryapi.controller.dto.EstatisticaGeneroDTO; // Importa o DTO de estatisticas de um genero
+import com.example.cursoudemy.libraryapi.models.Autor; // Importa a entidade Autor dona do livro de teste
+import com.example.cursoudemy.libraryapi.models.GeneroLivro; // Importa o enum de generos
+import com.example.cursoudemy.libraryapi.models.Livro; // Importa a entidade Livro gravada pelo teste
+import com.example.cursoudemy.libraryapi.repository.AutorRepository; // Importa o repositorio de autores
+import com.example.cursoudemy.libraryapi.repository.LivroRepository; // Importa o repositorio de livros
+import org.junit.jupiter.api.Test; // Importa a anotação @Test do JUnit 5 para definir métodos de teste
+import org.springframework.beans.factory.annotation.Autowired; // Permite injeção automática de dependências do Spring
+import org.springframework.boot.test.context.SpringBootTest; // Inicializa o contexto completo do Spring Boot para testes integrados
+
+import java.math.BigDecimal; // Importa BigDecimal para os precos
+import java.time.LocalDate; // Importa LocalDate para as datas de nascimento e publicacao
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Importa as asserções do JUnit 5
+
+/**
+ * Classe de teste das estatisticas por genero mantidas em memoria.
+ * Grava, altera e exclui um livro pelo repositorio (cada operacao confirmada na propria transacao) e confere que
+ * o EstatisticasCatalogo acompanhou cada passo sem recarregar do banco.
+ */
+@SpringBootTest // Contexto completo, com os listeners do Hibernate registrados
+public class EstatisticasCatalogoTest {
+
+    @Autowired
+    EstatisticasCatalogo estatisticas;
+
+    @Autowired
+    AutorRepository autorRepository;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Test
+    void atualizaAoInserirAlterarEExcluirTest() {
+        Autor autor = new Autor();
+        autor.setNome("Autor Estatisticas");
+        autor.setNacionalidade("Brasileira");
+        autor.setDataNascimento(LocalDate.of(1950, 5, 5));
+        autorRepository.save(autor);
+
+        long romances = quantidade(GeneroLivro.ROMANCE);
+        long biografias = quantidade(GeneroLivro.BIOGRAFIA);
+
+        Livro livro = new Livro();
+        livro.setIsbn("000-00-00000-00-0");
+        livro.setTitulo("Livro das Estatisticas");
+        livro.setDataPublicacao(LocalDate.of(2000, 1, 1));
+        livro.setGenero(GeneroLivro.ROMANCE);
+        livro.setPreco(BigDecimal.valueOf(42));
+        livro.setAutor(autor);
+        try {
+            livro = livroRepository.save(livro); // Insert confirmado: +1 em ROMANCE
+            assertEquals(romances + 1, quantidade(GeneroLivro.ROMANCE));
+
+            livro.setGenero(GeneroLivro.BIOGRAFIA);
+            livro = livroRepository.save(livro); // Merge com o estado anterior carregado: sai de ROMANCE e entra em BIOGRAFIA
+            assertEquals(romances, quantidade(GeneroLivro.ROMANCE));
+            assertEquals(biografias + 1, quantidade(GeneroLivro.BIOGRAFIA));
+            System.out.println(estatisticas.listar());
+        } finally {
+            livroRepository.delete(livro); // Delete confirmado: -1 em BIOGRAFIA
+            autorRepository.delete(autor);
+        }
+        assertEquals(biografias, quantidade(GeneroLivro.BIOGRAFIA));
+    }
+
+    private long quantidade(GeneroLivro genero) {
+        return estatisticas.listar().stream()
+                .filter(estatistica -> estatistica.genero() == genero)
+                .mapToLong(EstatisticaGeneroDTO::quantidade)
+                .findFirst()
+                .orElse(0);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.cursoudemy.libraryapi.service.lote; // Mesmo pacote: acessa o OperacoesLote (package-private)
+
+import com.example.cursoudemy.libraryapi.exceptions.RegistroDuplicadoException; // Importa a excecao de operacao ativa repetida
+import com.example.cursoudemy.libraryapi.models.Autor; // Importa a entidade Autor dona dos livros de teste
+import com.example.cursoudemy.libraryapi.models.GeneroLivro; // Importa o enum de generos
+import com.example.cursoudemy.libraryapi.models.Livro; // Importa a entidade Livro
+import com.example.cursoudemy.libraryapi.models.id.GeradorUuidV7; // Gera o id de uma "outra instancia"
+import com.example.cursoudemy.libraryapi.repository.AutorRepository; // Importa o repositorio de autores
+import com.example.cursoudemy.libraryapi.repository.LivroRepository; // Importa o repositorio de livros
+import org.junit.jupiter.api.Test; // Importa a anotação @Test do JUnit 5 para definir métodos de teste
+import org.springframework.beans.factory.annotation.Autowired; // Permite injeção automática de dependências do Spring
+import org.springframework.boot.test.context.SpringBootTest; // Inicializa o contexto completo do Spring Boot para testes integrados
+import org.springframework.jdbc.core.JdbcTemplate; // Envelhece a operacao "abandonada"
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Importa as asserções do JUnit 5
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Classe de teste das operacoes em lote sobre livros.
+ * Confere os comandos por bloco (CTE com limite a partir do ultimo id) e o ciclo de vida gravado em operacao_lote:
+ * operacao repetida rejeitada, cancelamento e retomada do ultimo bloco e retomada de uma operacao abandonada.
+ * Assim como LivroRepositoryTest, os testes excluem todos os livros do genero CIÊNCIA e alteram a data de todos os livros.
+ */
+@SpringBootTest(properties = {
+        "libraryapi.operacao-lote.tamanho-lote=1", // Um livro por bloco: varios blocos mesmo com poucos livros
+        "libraryapi.operacao-lote.pausa=300ms" // Tempo para cancelar entre um bloco e outro
+})
+public class LivroOperacaoLoteServiceTest {
+
+    @Autowired
+    LivroOperacaoLoteService service;
+
+    @Autowired
+    OperacoesLote operacoes;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Autowired
+    AutorRepository autorRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exclusaoEmBlocosTest() {
+        cadastrarLivros(GeneroLivro.CIÊNCIA, 3);
+        long total = livroRepository.countByGenero(GeneroLivro.CIÊNCIA);
+
+        long excluidos = 0;
+        UUID ultimoId = OperacaoLote.INICIO;
+        List<LivroRepository.PrecoExcluido> bloco;
+        while (!(bloco = livroRepository.excluirPorGeneroEmLote(GeneroLivro.CIÊNCIA.name(), ultimoId, 2)).isEmpty()) {
+            UUID proximo = bloco.get(0).getUltimoId();
+            assertTrue(proximo.toString().compareTo(ultimoId.toString()) > 0); // A posicao so avanca
+            excluidos += bloco.stream().mapToLong(linha -> linha.getQuantidade() != null ? linha.getQuantidade() : 0).sum();
+            ultimoId = proximo;
+        }
+        assertEquals(total, excluidos);
+        assertEquals(0, livroRepository.countByGenero(GeneroLivro.CIÊNCIA));
+    }
+
+    @Test
+    void atualizacaoEmBlocosTest() {
+        cadastrarLivros(GeneroLivro.ROMANCE, 2);
+        long total = livroRepository.count();
+
+        long atualizados = 0;
+        UUID ultimoId = OperacaoLote.INICIO;
+        LivroRepository.ResultadoLote bloco;
+        while ((bloco = livroRepository.atualizarDataDePublicacaoEmLote(LocalDate.of(2020, 3, 12), ultimoId, 500)).getUltimoId() != null) {
+            atualizados += bloco.getQuantidade();
+            ultimoId = bloco.getUltimoId();
+        }
+        assertEquals(total, atualizados);
+    }
+
+    @Test
+    void cancelarERetomarTest() {
+        cadastrarLivros(GeneroLivro.CIÊNCIA, 4);
+        long total = livroRepository.countByGenero(GeneroLivro.CIÊNCIA);
+
+        OperacaoLote operacao = service.iniciarExclusaoPorGenero(GeneroLivro.CIÊNCIA);
+        // Mesmo genero com a primeira ainda em execucao: rejeitada pelo indice unico parcial
+        assertThrows(RegistroDuplicadoException.class, () -> service.iniciarExclusaoPorGenero(GeneroLivro.CIÊNCIA));
+
+        service.cancelar(operacao.getId());
+        OperacaoLote cancelada = aguardarFim(operacao.getId());
+        assertEquals(OperacaoLote.Status.CANCELADA, cancelada.getStatus());
+        assertTrue(cancelada.getProcessados() < total);
+        // A posicao gravada corresponde exatamente ao que foi confirmado
+        assertEquals(total - cancelada.getProcessados(), livroRepository.countByGenero(GeneroLivro.CIÊNCIA));
+
+        service.retomar(operacao.getId());
+        OperacaoLote concluida = aguardarFim(operacao.getId());
+        assertEquals(OperacaoLote.Status.CONCLUIDA, concluida.getStatus());
+        assertEquals(total, concluida.getProcessados());
+        assertEquals(0, livroRepository.countByGenero(GeneroLivro.CIÊNCIA));
+    }
+
+    @Test
+    void retomaOperacaoAbandonadaTest() {
+        cadastrarLivros(GeneroLivro.CIÊNCIA, 2);
+        long total = livroRepository.countByGenero(GeneroLivro.CIÊNCIA);
+
+        // Operacao de uma instancia que caiu: sem bloco confirmado ha uma hora
+        UUID id = GeradorUuidV7.gerar();
+        operacoes.inserir(id, OperacaoLote.Tipo.EXCLUIR_POR_GENERO, GeneroLivro.CIÊNCIA.name(), total, GeradorUuidV7.gerar());
+        jdbcTemplate.update("update operacao_lote set atualizada_em = localtimestamp - interval '1 hour' where id = ?", id);
+
+        service.retomarAbandonadas();
+        OperacaoLote concluida = aguardarFim(id);
+        assertEquals(OperacaoLote.Status.CONCLUIDA, concluida.getStatus());
+        assertNotEquals(OperacaoLote.INICIO, concluida.getUltimoId());
+        assertEquals(0, livroRepository.countByGenero(GeneroLivro.CIÊNCIA));
+    }
+
+    private void cadastrarLivros(GeneroLivro genero, int quantidade) {
+        Autor autor = new Autor();
+        autor.setNome("Autor Operacao Lote");
+        autor.setNacionalidade("Brasileira");
+        autor.setDataNascimento(LocalDate.of(1970, 7, 7));
+        autor = autorRepository.save(autor);
+        for (int i = 0; i < quantidade; i++) {
+            Livro livro = new Livro();
+            livro.setIsbn("111-11-11111-11-" + i);
+            livro.setTitulo("Livro em Lote " + i);
+            livro.setDataPublicacao(LocalDate.of(2001, 1, 1));
+            livro.setGenero(genero);
+            livro.setPreco(BigDecimal.valueOf(10 + i));
+            livro.setAutor(autor);
+            livroRepository.save(livro);
+        }
+    }
+
+    // Consulta o status gravado ate a operacao sair de EXECUTANDO (no maximo 20 segundos)
+    private OperacaoLote aguardarFim(UUID id) {
+        long limite = System.currentTimeMillis() + 20_000;
+        OperacaoLote operacao;
+        do {
+            operacao = service.buscar(id).orElseThrow();
+            if (operacao.getStatus() != OperacaoLote.Status.EXECUTANDO) {
+                return operacao;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        } while (System.currentTimeMillis() < limite);
+        throw new AssertionError("Operacao " + id + " nao terminou: " + operacao.getStatus());
+    }
+}